@@ -0,0 +1,43 @@
+package org.mbari.uuid.jmh;
+
+import java.util.Arrays;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks at 1, N/2 and N threads (N = available processors) with the GC profiler
+ * attached so allocation rate is reported next to throughput and latency.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.mbari.uuid.jmh.BenchmarkRunner [jmh options] [regexp]
+ * </pre>
+ *
+ * Any standard JMH command line options are passed through, for example a benchmark regexp
+ * such as {@code GeneratorBenchmark.uuid4}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var cli = new CommandLineOptions(args);
+        int n = Runtime.getRuntime().availableProcessors();
+        int[] threads = Arrays.stream(new int[] {1, Math.max(1, n / 2), n})
+                .distinct()
+                .toArray();
+
+        for (int t : threads) {
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .parent(cli)
+                    .threads(t)
+                    .addProfiler(GCProfiler.class);
+            if (cli.getIncludes().isEmpty()) {
+                builder.include(GeneratorBenchmark.class.getSimpleName());
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
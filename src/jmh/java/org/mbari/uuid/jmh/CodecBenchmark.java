@@ -0,0 +1,106 @@
+package org.mbari.uuid.jmh;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.codec.Base32Codec;
+import org.mbari.uuid.codec.Base64Codec;
+import org.mbari.uuid.codec.TextCodec;
+import org.mbari.uuid.order.KeyOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Text encoding and decoding of UUIDs against {@link UUID#toString()} and
+ * {@link UUID#fromString(String)}, for the 36 character form and the compact base64 and base32
+ * forms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private UUID uuid;
+    private long msb;
+    private long lsb;
+    private String text;
+    private final byte[] ascii = new byte[TextCodec.LENGTH];
+    private final byte[] base64 = new byte[Base64Codec.LENGTH];
+    private final byte[] base32 = new byte[Base32Codec.LENGTH];
+    private final long[] bits = new long[2];
+
+    @Setup
+    public void setup() {
+        uuid = UUIDs.uuidSequence();
+        msb = uuid.getMostSignificantBits();
+        lsb = uuid.getLeastSignificantBits();
+        text = uuid.toString();
+        TextCodec.format(msb, lsb, ascii, 0);
+        Base64Codec.format(msb, lsb, base64, 0);
+        Base32Codec.format(KeyOrder.SQL_SERVER, msb, lsb, base32, 0);
+    }
+
+    @Benchmark
+    public String baselineToString() {
+        return uuid.toString();
+    }
+
+    @Benchmark
+    public UUID baselineFromString() {
+        return UUID.fromString(text);
+    }
+
+    @Benchmark
+    public byte[] formatAscii() {
+        TextCodec.format(msb, lsb, ascii, 0);
+        return ascii;
+    }
+
+    @Benchmark
+    public long[] parseAscii() {
+        TextCodec.parse(ascii, 0, bits, 0);
+        return bits;
+    }
+
+    @Benchmark
+    public long[] parseString() {
+        TextCodec.parse(text, 0, bits, 0);
+        return bits;
+    }
+
+    @Benchmark
+    public byte[] formatBase64() {
+        Base64Codec.format(msb, lsb, base64, 0);
+        return base64;
+    }
+
+    @Benchmark
+    public long[] parseBase64() {
+        Base64Codec.parse(base64, 0, bits, 0);
+        return bits;
+    }
+
+    @Benchmark
+    public byte[] formatBase32() {
+        Base32Codec.format(KeyOrder.SQL_SERVER, msb, lsb, base32, 0);
+        return base32;
+    }
+
+    @Benchmark
+    public long[] parseBase32() {
+        Base32Codec.parse(KeyOrder.SQL_SERVER, base32, 0, bits, 0);
+        return bits;
+    }
+
+}
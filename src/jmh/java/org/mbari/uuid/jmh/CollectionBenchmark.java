@@ -0,0 +1,84 @@
+package org.mbari.uuid.jmh;
+
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.collection.UuidHashSet;
+import org.mbari.uuid.collection.UuidHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups of sequence UUIDs in a {@link UuidHashSet}, with the sequence-tuned and the default
+ * hasher, against a {@code HashSet<UUID>}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class CollectionBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private long[] msb;
+    private long[] lsb;
+    private UUID[] uuids;
+    private UuidHashSet sequenceSet;
+    private UuidHashSet defaultSet;
+    private HashSet<UUID> hashSet;
+    private int next;
+
+    @Setup
+    public void setup() {
+        msb = new long[size];
+        lsb = new long[size];
+        uuids = new UUID[size];
+        sequenceSet = new UuidHashSet(size, UuidHasher.SEQUENCE);
+        defaultSet = new UuidHashSet(size, UuidHasher.DEFAULT);
+        hashSet = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            uuids[i] = UUIDs.uuidSequence();
+            msb[i] = uuids[i].getMostSignificantBits();
+            lsb[i] = uuids[i].getLeastSignificantBits();
+            sequenceSet.add(msb[i], lsb[i]);
+            defaultSet.add(msb[i], lsb[i]);
+            hashSet.add(uuids[i]);
+        }
+    }
+
+    private int index() {
+        int i = next;
+        next = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public boolean uuidHashSetSequenceHasher() {
+        int i = index();
+        return sequenceSet.contains(msb[i], lsb[i]);
+    }
+
+    @Benchmark
+    public boolean uuidHashSetDefaultHasher() {
+        int i = index();
+        return defaultSet.contains(msb[i], lsb[i]);
+    }
+
+    @Benchmark
+    public boolean baselineHashSet() {
+        return hashSet.contains(uuids[index()]);
+    }
+}
@@ -0,0 +1,40 @@
+package org.mbari.uuid.jmh;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.sequence.SequenceCounter;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single versus striped counters in the sequence generators with every available processor
+ * generating at once. The counter mode is chosen when TimeSequenceGenerator is initialized, so
+ * each benchmark runs in its own fork with the {@value SequenceCounter#LANES_PROPERTY} property.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+public class ContentionBenchmark {
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + SequenceCounter.LANES_PROPERTY + "=1")
+    public UUID singleCounter() {
+        return TimeSequenceGenerator.nextUuid();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + SequenceCounter.LANES_PROPERTY + "=0")
+    public UUID stripedCounter() {
+        return TimeSequenceGenerator.nextUuid();
+    }
+
+}
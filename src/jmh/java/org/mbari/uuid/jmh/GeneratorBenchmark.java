@@ -0,0 +1,174 @@
+package org.mbari.uuid.jmh;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.RandomBasedGenerator;
+import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
+import com.fasterxml.uuid.impl.TimeBasedGenerator;
+import com.fasterxml.uuid.impl.TimeBasedReorderedGenerator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.Entropy;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.UuidFlavor;
+import org.mbari.uuid.pool.UuidPool;
+import org.mbari.uuid.sequence.DecomposedUUID;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput and latency of every generator exposed by {@link UUIDs} and the sequence package,
+ * with {@link UUID#randomUUID()} and JUG's {@link Generators} as baselines.
+ *
+ * Use {@link BenchmarkRunner} to run these at 1, N/2 and N threads with the GC profiler attached.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratorBenchmark {
+
+    private TimeBasedGenerator jugTimeBased;
+    private TimeBasedReorderedGenerator jugTimeBasedReordered;
+    private TimeBasedEpochGenerator jugTimeBasedEpoch;
+    private RandomBasedGenerator jugRandomBased;
+    private UUID sequenceUuid;
+    private UuidPool uuid4Pool;
+    private UuidPool uuid1Pool;
+
+    private static final int BATCH_SIZE = 1000;
+
+    @State(Scope.Thread)
+    public static class Batch {
+        final long[] msb = new long[BATCH_SIZE];
+        final long[] lsb = new long[BATCH_SIZE];
+    }
+
+    @Setup
+    public void setup() {
+        jugTimeBased = Generators.timeBasedGenerator();
+        jugTimeBasedReordered = Generators.timeBasedReorderedGenerator();
+        jugTimeBasedEpoch = Generators.timeBasedEpochGenerator();
+        jugRandomBased = Generators.randomBasedGenerator();
+        sequenceUuid = UUIDs.uuidSequence();
+        uuid4Pool = new UuidPool(UuidFlavor.UUID4);
+        uuid1Pool = new UuidPool(UuidFlavor.UUID1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        uuid4Pool.close();
+        uuid1Pool.close();
+    }
+
+    @Benchmark
+    public UUID uuid1() {
+        return UUIDs.uuid1();
+    }
+
+    @Benchmark
+    public UUID uuid4() {
+        return UUIDs.uuid4();
+    }
+
+    @Benchmark
+    public UUID uuid4Secure() {
+        return UUIDs.uuid4(Entropy.SECURE);
+    }
+
+    @Benchmark
+    public UUID uuid4Fast() {
+        return UUIDs.uuid4(Entropy.FAST);
+    }
+
+    @Benchmark
+    public UUID uuid4Pooled() {
+        return uuid4Pool.next();
+    }
+
+    @Benchmark
+    public UUID uuid1Pooled() {
+        return uuid1Pool.next();
+    }
+
+    @Benchmark
+    public UUID uuid6() {
+        return UUIDs.uuid6();
+    }
+
+    @Benchmark
+    public UUID uuid7() {
+        return UUIDs.uuid7();
+    }
+
+    @Benchmark
+    public UUID comb() {
+        return UUIDs.comb();
+    }
+
+    @Benchmark
+    public UUID uuidCounter() {
+        return UUIDs.uuidCounter();
+    }
+
+    @Benchmark
+    public UUID uuidSequence() {
+        return UUIDs.uuidSequence();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] uuidSequenceBatch(Batch batch) {
+        TimeSequenceGenerator.fill(batch.msb, batch.lsb);
+        return batch.msb;
+    }
+
+    @Benchmark
+    public DecomposedUUID decompose() {
+        return new DecomposedUUID(sequenceUuid);
+    }
+
+    @Benchmark
+    public long decomposeEpochMillis() {
+        return DecomposedUUID.epochMillis(sequenceUuid.getMostSignificantBits(),
+                sequenceUuid.getLeastSignificantBits());
+    }
+
+    @Benchmark
+    public UUID baselineRandomUUID() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID baselineJugTimeBased() {
+        return jugTimeBased.generate();
+    }
+
+    @Benchmark
+    public UUID baselineJugTimeBasedReordered() {
+        return jugTimeBasedReordered.generate();
+    }
+
+    @Benchmark
+    public UUID baselineJugTimeBasedEpoch() {
+        return jugTimeBasedEpoch.generate();
+    }
+
+    @Benchmark
+    public UUID baselineJugRandomBased() {
+        return jugRandomBased.generate();
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.mbari.uuid.jmh;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.NameBasedGenerator;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Name-based version 5 UUIDs from a short record key: {@link UUIDs#uuid5(UUID, CharSequence)}
+ * against a fresh {@link MessageDigest} per call and JUG's name-based generator.
+ * {@code prehashedClone} clones a digest that has already hashed the namespace, to show what
+ * pre-hashing would save.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NameBenchmark {
+
+    private static final UUID NAMESPACE = org.mbari.uuid.name.NameBasedGenerator.NAMESPACE_URL;
+
+    @Param({"record-000042", "https://example.org/records/2019/06/01/000042"})
+    private String name;
+
+    private byte[] nameBytes;
+    private NameBasedGenerator jug;
+    private MessageDigest prehashed;
+
+    @Setup
+    public void setup() throws Exception {
+        nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        jug = Generators.nameBasedGenerator(NAMESPACE);
+        prehashed = MessageDigest.getInstance("SHA-1");
+        prehashed.update(ByteBuffer.allocate(16)
+                .putLong(NAMESPACE.getMostSignificantBits())
+                .putLong(NAMESPACE.getLeastSignificantBits())
+                .array());
+    }
+
+    @Benchmark
+    public UUID uuid5() {
+        return UUIDs.uuid5(NAMESPACE, name);
+    }
+
+    @Benchmark
+    public UUID uuid5Bytes() {
+        return UUIDs.uuid5(NAMESPACE, nameBytes);
+    }
+
+    @Benchmark
+    public UUID baselineFreshDigest() throws Exception {
+        var digest = MessageDigest.getInstance("SHA-1");
+        digest.update(ByteBuffer.allocate(16)
+                .putLong(NAMESPACE.getMostSignificantBits())
+                .putLong(NAMESPACE.getLeastSignificantBits())
+                .array());
+        byte[] hash = digest.digest(name.getBytes(StandardCharsets.UTF_8));
+        var bits = ByteBuffer.wrap(hash);
+        long msb = (bits.getLong() & ~0xF000L) | 0x5000L;
+        long lsb = (bits.getLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    @Benchmark
+    public UUID baselineJug() {
+        return jug.generate(name);
+    }
+
+    @Benchmark
+    public byte[] prehashedClone() throws Exception {
+        var digest = (MessageDigest) prehashed.clone();
+        digest.update(nameBytes);
+        return digest.digest();
+    }
+}
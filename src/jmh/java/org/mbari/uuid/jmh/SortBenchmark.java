@@ -0,0 +1,82 @@
+package org.mbari.uuid.jmh;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.order.KeyOrder;
+import org.mbari.uuid.order.KeySorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pre-sorting a batch of UUIDs before a bulk insert: {@link KeySorter} on primitive arrays
+ * against {@link Arrays#sort(Object[], java.util.Comparator)} on {@link UUID} objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"UNSIGNED", "SQL_SERVER"})
+    private KeyOrder order;
+
+    private UUID[] source;
+    private UUID[] uuids;
+    private long[] sourceMsb;
+    private long[] sourceLsb;
+    private long[] msb;
+    private long[] lsb;
+    private KeySorter sorter;
+
+    @Setup
+    public void setup() {
+        source = new UUID[size];
+        sourceMsb = new long[size];
+        sourceLsb = new long[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = UUIDs.uuid4();
+            sourceMsb[i] = source[i].getMostSignificantBits();
+            sourceLsb[i] = source[i].getLeastSignificantBits();
+        }
+        uuids = new UUID[size];
+        msb = new long[size];
+        lsb = new long[size];
+        sorter = new KeySorter(order);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(source, 0, uuids, 0, size);
+        System.arraycopy(sourceMsb, 0, msb, 0, size);
+        System.arraycopy(sourceLsb, 0, lsb, 0, size);
+    }
+
+    @Benchmark
+    public long[] radixSort() {
+        sorter.sort(msb, lsb);
+        return msb;
+    }
+
+    @Benchmark
+    public UUID[] baselineComparatorSort() {
+        Arrays.sort(uuids, order.comparator());
+        return uuids;
+    }
+}
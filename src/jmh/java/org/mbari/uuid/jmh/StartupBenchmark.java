@@ -0,0 +1,57 @@
+package org.mbari.uuid.jmh;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to the first UUID of each kind in a fresh JVM, which includes loading the generator
+ * classes and resolving the node identity. Each fork measures a single call, so this is what a
+ * short-lived container or serverless function pays on its first request.
+ *
+ * Set {@code org.mbari.uuid.node.id} and {@code org.mbari.uuid.node.pid} to see the cost without
+ * network interface enumeration, e.g.
+ * <pre>
+ * java -jar target/benchmarks.jar StartupBenchmark -jvmArgsAppend "-Dorg.mbari.uuid.node.id=0242ac1c0002"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    @Benchmark
+    public UUID firstUuid1() {
+        return UUIDs.uuid1();
+    }
+
+    @Benchmark
+    public UUID firstUuid4() {
+        return UUIDs.uuid4();
+    }
+
+    @Benchmark
+    public UUID firstUuid7() {
+        return UUIDs.uuid7();
+    }
+
+    @Benchmark
+    public UUID firstUuidSequence() {
+        return UUIDs.uuidSequence();
+    }
+
+    @Benchmark
+    public UUID firstUuid1AndSequence() {
+        UUIDs.uuid1();
+        return UUIDs.uuidSequence();
+    }
+}
@@ -0,0 +1,69 @@
+package org.mbari.uuid.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.mbari.uuid.UuidFlavor;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.mbari.uuid.stream.UuidStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Assigning ids to an array of records from a parallel pipeline: one static {@code nextUuid} per
+ * element, which hits the shared counter every time, against {@link UuidStreams#forEach}, which
+ * claims counter blocks per batch and splits the work between fork-join workers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+
+    private static final int RECORDS = 1 << 20;
+
+    private final long[] ids = new long[2 * RECORDS];
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long[] perElementSequence() {
+        IntStream.range(0, RECORDS).parallel().forEach(i -> TimeSequenceGenerator.nextUuid(ids, 2 * i));
+        return ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long[] streamSequence() {
+        UuidStreams.forEach(UuidFlavor.SEQUENCE, RECORDS, (i, msb, lsb) -> {
+            ids[(int) (2 * i)] = msb;
+            ids[(int) (2 * i + 1)] = lsb;
+        });
+        return ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long[] perElementUuid7() {
+        IntStream.range(0, RECORDS).parallel().forEach(i -> UuidFlavor.UUID7.generate(ids, 2 * i));
+        return ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long[] streamUuid7() {
+        UuidStreams.forEach(UuidFlavor.UUID7, RECORDS, (i, msb, lsb) -> {
+            ids[(int) (2 * i)] = msb;
+            ids[(int) (2 * i + 1)] = lsb;
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,80 @@
+package org.mbari.uuid.jmh;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.TimeBasedGenerator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mbari.uuid.UUIDs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The lock-free version 1/6 engine behind {@link UUIDs#uuid1()} against JUG's synchronized
+ * {@link TimeBasedGenerator}, with every processor generating at once.
+ *
+ * The {@code virtual*} benchmarks run the benchmark threads as virtual threads and need a JDK 21+
+ * runtime. To run only the platform thread variants on older JDKs use {@code TimeBasedBenchmark.platform}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class TimeBasedBenchmark {
+
+    private static final String VIRTUAL = "-Djmh.executor=VIRTUAL";
+
+    private TimeBasedGenerator jugTimeBased;
+
+    @Setup
+    public void setup() {
+        jugTimeBased = Generators.timeBasedGenerator();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public UUID platformUuid1() {
+        return UUIDs.uuid1();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public UUID platformUuid6() {
+        return UUIDs.uuid6();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public UUID platformJugTimeBased() {
+        return jugTimeBased.generate();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VIRTUAL)
+    public UUID virtualUuid1() {
+        return UUIDs.uuid1();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VIRTUAL)
+    public UUID virtualUuid6() {
+        return UUIDs.uuid6();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VIRTUAL)
+    public UUID virtualJugTimeBased() {
+        return jugTimeBased.generate();
+    }
+
+}
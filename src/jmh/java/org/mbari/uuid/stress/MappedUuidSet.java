@@ -0,0 +1,91 @@
+package org.mbari.uuid.stress;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An open-addressing hash set of UUIDs stored in a memory-mapped file, so billions of ids can be
+ * checked for duplicates without a {@code HashSet<UUID>} on the heap. Each slot is the 16 bytes
+ * of a UUID; all zero marks an empty slot, which no generated UUID can be since they all carry a
+ * version. The file is split into 1 GiB mappings. Not thread-safe.
+ */
+final class MappedUuidSet implements AutoCloseable {
+
+    private static final int SLOT = 16;
+    private static final int SLOTS_PER_SEGMENT_BITS = 26;  // 2^26 * 16 B = 1 GiB
+    private static final long SEGMENT_MASK = (1L << SLOTS_PER_SEGMENT_BITS) - 1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long mask;
+    private long size;
+
+    /**
+     * @param file The backing file. Created, and deleted on close
+     * @param expected The number of ids that will be added. The table is sized to at most half full
+     */
+    MappedUuidSet(Path file, long expected) throws IOException {
+        long slots = Long.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.file = file;
+        this.mask = slots - 1;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+        int n = (int) Math.max(1, slots >>> SLOTS_PER_SEGMENT_BITS);
+        long segmentBytes = Math.min(slots, 1L << SLOTS_PER_SEGMENT_BITS) * SLOT;
+        this.segments = new MappedByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentBytes, segmentBytes);
+        }
+    }
+
+    /**
+     * @return true if the UUID was not already in the set
+     */
+    boolean add(long msb, long lsb) {
+        long slot = mix(msb ^ Long.rotateLeft(lsb, 32)) & mask;
+        while (true) {
+            MappedByteBuffer segment = segments[(int) (slot >>> SLOTS_PER_SEGMENT_BITS)];
+            int index = (int) (slot & SEGMENT_MASK) * SLOT;
+            long m = segment.getLong(index);
+            long l = segment.getLong(index + 8);
+            if (m == 0 && l == 0) {
+                if (size == mask) {
+                    throw new IllegalStateException("The set is full at " + size + " ids");
+                }
+                segment.putLong(index, msb);
+                segment.putLong(index + 8, lsb);
+                size++;
+                return true;
+            }
+            if (m == msb && l == lsb) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    long capacity() {
+        return mask + 1;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
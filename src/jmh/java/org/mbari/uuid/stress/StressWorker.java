@@ -0,0 +1,85 @@
+package org.mbari.uuid.stress;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * One child JVM of {@link UniquenessStress}. Each thread generates its share of ids and writes
+ * them as packed 16 byte big-endian records (the binary format {@code KeyAnalyzer} reads) to its
+ * own file. Generation time, excluding the file writes, is reported on stdout as
+ * {@code RESULT <pid> <ids> <nanos>}.
+ */
+public class StressWorker {
+
+    private static final int BATCH = 8192;
+
+    public static void main(String[] args) throws Exception {
+        UuidFlavor flavor = UuidFlavor.valueOf(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        long perThread = Long.parseLong(args[2]);
+        Path dir = Path.of(args[3]);
+        String prefix = args[4];
+
+        long[] nanos = new long[threads];
+        Exception[] errors = new Exception[threads];
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            var thread = new Thread(() -> {
+                try {
+                    nanos[id] = run(flavor, perThread, dir.resolve(prefix + "-" + id + ".bin"));
+                }
+                catch (IOException e) {
+                    errors[id] = e;
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        for (Exception e : errors) {
+            if (e != null) {
+                throw e;
+            }
+        }
+        long maxNanos = 0;
+        for (long n : nanos) {
+            maxNanos = Math.max(maxNanos, n);
+        }
+        System.out.println("RESULT " + ProcessHandle.current().pid() + " " + perThread * threads + " " + maxNanos);
+    }
+
+    private static long run(UuidFlavor flavor, long count, Path file) throws IOException {
+        long[] bits = new long[2 * BATCH];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16 * BATCH);
+        long generating = 0;
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long done = 0; done < count; ) {
+                int n = (int) Math.min(BATCH, count - done);
+                long start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    flavor.generate(bits, 2 * i);
+                }
+                generating += System.nanoTime() - start;
+                buffer.clear();
+                for (int i = 0; i < 2 * n; i++) {
+                    buffer.putLong(bits[i]);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                done += n;
+            }
+        }
+        return generating;
+    }
+}
@@ -0,0 +1,135 @@
+package org.mbari.uuid.stress;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * A uniqueness stress test across several JVMs on one host. Separate JVMs exercise the parts of
+ * an id that only differ between processes: the process id (modulo 65,536) and, because they
+ * share a host, nothing else in the MAC fragment. Each child ({@link StressWorker}) writes its
+ * ids to binary files; this parent then streams every file through a memory-mapped hash set
+ * ({@link MappedUuidSet}) and reports duplicates alongside generation throughput.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.mbari.uuid.stress.UniquenessStress \
+ *     [flavor=SEQUENCE] [jvms=4] [threads per jvm=4] [ids per thread=1000000] [work dir]
+ * </pre>
+ *
+ * The work dir needs room for 16 bytes per id for the id files plus, sparsely, 32 to 64 bytes per
+ * id for the hash set. Child JVMs inherit the parent's JVM options given in the
+ * {@code stress.jvmArgs} system property, e.g. {@code -Dstress.jvmArgs="-Xmx512m -Dorg.mbari.uuid.sequence.lanes=0"}.
+ */
+public class UniquenessStress {
+
+    private static final int CHUNK = 16 << 20;
+
+    public static void main(String[] args) throws Exception {
+        UuidFlavor flavor = args.length > 0 ? UuidFlavor.valueOf(args[0].toUpperCase()) : UuidFlavor.SEQUENCE;
+        int jvms = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long perThread = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000L;
+        Path dir = args.length > 4 ? Paths.get(args[4]) : Files.createTempDirectory("uuid-stress");
+        Files.createDirectories(dir);
+        long total = (long) jvms * threads * perThread;
+
+        System.out.printf("%s: %d JVMs x %d threads x %,d ids = %,d ids in %s%n",
+                flavor, jvms, threads, perThread, total, dir);
+
+        // generate
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+        String jvmArgs = System.getProperty("stress.jvmArgs", "");
+        var processes = new ArrayList<Process>();
+        long wallStart = System.nanoTime();
+        for (int j = 0; j < jvms; j++) {
+            var command = new ArrayList<String>();
+            command.add(java);
+            for (String arg : jvmArgs.split("\\s+")) {
+                if (!arg.isEmpty()) {
+                    command.add(arg);
+                }
+            }
+            command.addAll(List.of("-cp", classpath, StressWorker.class.getName(), flavor.name(),
+                    Integer.toString(threads), Long.toString(perThread), dir.toString(), "jvm-" + j));
+            processes.add(new ProcessBuilder(command).redirectErrorStream(true).start());
+        }
+        double slowest = 0;
+        for (int j = 0; j < jvms; j++) {
+            Process process = processes.get(j);
+            try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("RESULT ")) {
+                        String[] parts = line.split(" ");
+                        long pid = Long.parseLong(parts[1]);
+                        long ids = Long.parseLong(parts[2]);
+                        double seconds = Long.parseLong(parts[3]) / 1e9;
+                        slowest = Math.max(slowest, seconds);
+                        System.out.printf("  jvm-%d pid %d (%% 65536 = %d): %,d ids, %,.0f ids/s%n",
+                                j, pid, pid % 65536, ids, ids / seconds);
+                    }
+                    else {
+                        System.out.println("  jvm-" + j + ": " + line);
+                    }
+                }
+            }
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("jvm-" + j + " exited with " + process.exitValue());
+            }
+        }
+        double wall = (System.nanoTime() - wallStart) / 1e9;
+        System.out.printf("Generated %,d ids. Aggregate %,.0f ids/s (generation only), %.1f s wall clock including writes%n",
+                total, total / slowest, wall);
+
+        // check
+        long checkStart = System.nanoTime();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(".bin")).sorted().collect(Collectors.toList());
+        }
+        long duplicates = 0;
+        try (var set = new MappedUuidSet(dir.resolve("uuid-set.tmp"), total)) {
+            for (Path file : files) {
+                duplicates += check(file, set);
+                Files.delete(file);
+            }
+            System.out.printf("Checked %,d distinct ids with %,d slots in %.1f s%n",
+                    set.size(), set.capacity(), (System.nanoTime() - checkStart) / 1e9);
+        }
+        System.out.printf("Duplicates: %,d%n", duplicates);
+        if (duplicates > 0) {
+            System.exit(2);
+        }
+    }
+
+    private static long check(Path file, MappedUuidSet set) throws IOException {
+        long duplicates = 0;
+        try (var channel = FileChannel.open(file)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += CHUNK) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(CHUNK, size - position));
+                while (buffer.remaining() >= 16) {
+                    long msb = buffer.getLong();
+                    long lsb = buffer.getLong();
+                    if (!set.add(msb, lsb) && duplicates++ < 10) {
+                        System.out.println("  duplicate " + new UUID(msb, lsb) + " in " + file.getFileName());
+                    }
+                }
+            }
+        }
+        return duplicates;
+    }
+}
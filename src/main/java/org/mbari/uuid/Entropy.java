@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sources of random bits for the random parts of generated UUIDs.
+ */
+public enum Entropy {
+
+    /**
+     * Every call reads from one shared {@link SecureRandom}. This is what
+     * {@link java.util.UUID#randomUUID()} does.
+     */
+    SECURE {
+        @Override
+        public long nextLong() {
+            return Secure.RANDOM.nextLong();
+        }
+    },
+
+    /**
+     * {@link SecureRandom} output that each thread reads in bulk into its own buffer. Requests are
+     * served from the buffer, so the shared generator is only touched once per
+     * 512 bytes. The bits are as strong as {@link #SECURE}.
+     */
+    BUFFERED {
+        @Override
+        public long nextLong() {
+            return Buffer.LOCAL.get().nextLong();
+        }
+    },
+
+    /**
+     * {@link ThreadLocalRandom}. Fast and never contended, but NOT cryptographically strong. Only
+     * use this for ids that do not need to be unguessable.
+     */
+    FAST {
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+    };
+
+    /**
+     * @return 64 random bits
+     */
+    public abstract long nextLong();
+
+    private static final class Secure {
+        private static final SecureRandom RANDOM = new SecureRandom();
+    }
+
+    private static final class Buffer {
+
+        private static final int SIZE = 512;
+        private static final VarHandle LONGS =
+                MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+        private static final ThreadLocal<Buffer> LOCAL = ThreadLocal.withInitial(Buffer::new);
+
+        private final byte[] bytes = new byte[SIZE];
+        private int position = SIZE;
+
+        long nextLong() {
+            if (position == SIZE) {
+                Secure.RANDOM.nextBytes(bytes);
+                position = 0;
+            }
+            long value = (long) LONGS.get(bytes, position);
+            position += Long.BYTES;
+            return value;
+        }
+    }
+}
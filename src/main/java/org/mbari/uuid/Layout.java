@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid;
+
+/**
+ * The bit layouts produced by {@link UUIDs}, with allocation free access to the creation time
+ * of each one.
+ */
+public enum Layout {
+
+    /** Version 1: Gregorian timestamp split low/mid/high, clock sequence and MAC address */
+    UUID1 {
+        @Override
+        public long epochMillis(long msb, long lsb) {
+            long ticks = ((msb & 0x0FFFL) << 48) | (((msb >>> 16) & 0xFFFFL) << 32) | (msb >>> 32);
+            return ticksToMillis(ticks);
+        }
+    },
+
+    /** Version 4: random */
+    UUID4,
+
+    /** Version 6: version 1 with the timestamp bits ordered from most to least significant */
+    UUID6 {
+        @Override
+        public long epochMillis(long msb, long lsb) {
+            return ticksToMillis(((msb >>> 16) << 12) | (msb & 0x0FFFL));
+        }
+    },
+
+    /** Version 7: Unix millisecond timestamp in the first 48 bits */
+    UUID7 {
+        @Override
+        public long epochMillis(long msb, long lsb) {
+            return msb >>> 16;
+        }
+    },
+
+    /**
+     * {@link UUIDs#comb()}: random version 4 most significant bits and the byte-reversed most
+     * significant bits of a version 6 UUID as the least significant bits.
+     */
+    COMB {
+        @Override
+        public long epochMillis(long msb, long lsb) {
+            return UUID6.epochMillis(Long.reverseBytes(lsb), 0L);
+        }
+    },
+
+    /**
+     * The 'b' version of {@link org.mbari.uuid.sequence.TimeSequenceGenerator} and
+     * {@link org.mbari.uuid.sequence.CounterSequenceGenerator}: counter, PID, MAC fragment and a
+     * millisecond timestamp in the last 6 bytes. Also the 'c' version, the same fields written by
+     * {@link org.mbari.uuid.partition.PartitionedGenerator#sequence}.
+     */
+    SEQUENCE {
+        @Override
+        public long epochMillis(long msb, long lsb) {
+            return lsb & 0xFFFFFFFFFFFFL;
+        }
+    },
+
+    /** Anything else */
+    UNKNOWN;
+
+    /** Returned by {@link #epochMillis(long, long)} for layouts that do not carry a timestamp */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /** 100 ns intervals between 1582-10-15 and 1970-01-01 */
+    private static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The UTC milliseconds since epoch when the UUID was created, or {@link #NO_TIMESTAMP}
+     *     if this layout has no timestamp
+     */
+    public long epochMillis(long msb, long lsb) {
+        return NO_TIMESTAMP;
+    }
+
+    /**
+     * @return true if UUIDs with this layout carry a timestamp
+     */
+    public boolean hasTimestamp() {
+        return this != UUID4 && this != UNKNOWN;
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @return The version nibble, e.g. 4 for a random UUID or 0xb for the sequence UUIDs
+     */
+    public static int version(long msb) {
+        return (int) (msb >>> 12) & 0xF;
+    }
+
+    /**
+     * Work out the layout of a UUID from its version nibble. A {@link #COMB} is told apart from a
+     * plain random UUID by the '6' version nibble of the embedded version 6 timestamp and the
+     * absence of the IETF variant bits. Roughly a quarter of COMBs happen to carry the variant
+     * bits and are reported as {@link #UUID4}; pass {@link #COMB} explicitly when the layout is
+     * known.
+     *
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The best matching layout
+     */
+    public static Layout of(long msb, long lsb) {
+        switch (version(msb)) {
+            case 0x1:
+                return UUID1;
+            case 0x4:
+                boolean comb = ((lsb >>> 52) & 0xF) == 6 && (lsb >>> 62) != 2;
+                return comb ? COMB : UUID4;
+            case 0x6:
+                return UUID6;
+            case 0x7:
+                return UUID7;
+            case 0xb:
+            case 0xc:
+                return SEQUENCE;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    private static long ticksToMillis(long ticks) {
+        return Math.floorDiv(ticks - GREGORIAN_OFFSET, 10_000L);
+    }
+}
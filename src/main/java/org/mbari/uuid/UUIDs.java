@@ -15,47 +15,170 @@
  */
 package org.mbari.uuid;
 
-import com.fasterxml.uuid.EthernetAddress;
-import com.fasterxml.uuid.Generators;
-import com.fasterxml.uuid.impl.TimeBasedGenerator;
-
+import java.nio.ByteBuffer;
 import java.util.UUID;
+import org.mbari.uuid.metrics.GeneratorMetrics;
+import org.mbari.uuid.name.NameBasedGenerator;
 import org.mbari.uuid.sequence.CounterSequenceGenerator;
 import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.mbari.uuid.time.Version1Generator;
+import org.mbari.uuid.time.Version7Generator;
 
 /**
  * UUIDs
  */
 public class UUIDs {
 
-    private static final TimeBasedGenerator timeBasedGenerator = getTimeBasedGenerator();
-
-    private static TimeBasedGenerator getTimeBasedGenerator() {
-        TimeBasedGenerator tbg;
-        try {
-            tbg = Generators.timeBasedGenerator(EthernetAddress.fromInterface());
-        }
-        catch (Exception e) {
-
-            // No network card is available
-            tbg = Generators.timeBasedGenerator();
-        }
+    /**
+     * @return
+     */
+    public static UUID uuid1() {
+        GeneratorMetrics.generated(UuidFlavor.UUID1, 1);
+        return Version1.GENERATOR.uuid1();
+    }
 
-        return tbg;
+    /**
+     * Generate a version 1 UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void uuid1(long[] dest, int offset) {
+        GeneratorMetrics.generated(UuidFlavor.UUID1, 1);
+        Version1.GENERATOR.uuid1(dest, offset);
     }
 
     /**
-     * @return
+     * Fill a range of the arrays with a batch of version 1 UUIDs whose timestamps are claimed in
+     * one atomic operation.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
      */
-    public static UUID uuid1() {
-        return timeBasedGenerator.generate();
+    public static void uuid1(long[] msb, long[] lsb, int offset, int length) {
+        GeneratorMetrics.generated(UuidFlavor.UUID1, length);
+        Version1.GENERATOR.uuid1(msb, lsb, offset, length);
     }
 
     /**
+     * A random UUID using {@link Entropy#BUFFERED} SecureRandom output.
+     *
      * @return
      */
     public static UUID uuid4() {
-        return UUID.randomUUID();
+        return uuid4(Entropy.BUFFERED);
+    }
+
+    /**
+     * @param entropy The source of the random bits
+     * @return A random (version 4) UUID
+     */
+    public static UUID uuid4(Entropy entropy) {
+        GeneratorMetrics.generated(UuidFlavor.UUID4, 1);
+        return new UUID(uuid4Msb(entropy.nextLong()), uuid4Lsb(entropy.nextLong()));
+    }
+
+    /**
+     * Generate a random (version 4) UUID without allocating a {@link UUID}.
+     *
+     * @param entropy The source of the random bits
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void uuid4(Entropy entropy, long[] dest, int offset) {
+        GeneratorMetrics.generated(UuidFlavor.UUID4, 1);
+        dest[offset] = uuid4Msb(entropy.nextLong());
+        dest[offset + 1] = uuid4Lsb(entropy.nextLong());
+    }
+
+    private static long uuid4Msb(long random) {
+        return (random & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;  // version 4
+    }
+
+    private static long uuid4Lsb(long random) {
+        return (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;  // IETF variant
+    }
+
+    /**
+     * @param namespace The namespace, e.g. {@link NameBasedGenerator#NAMESPACE_DNS}
+     * @param name The name, hashed as UTF-8
+     * @return The name-based (MD5, version 3) UUID of the name in the namespace
+     */
+    public static UUID uuid3(UUID namespace, CharSequence name) {
+        return NameBasedGenerator.MD5.generate(namespace, name);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name
+     * @return The name-based (MD5, version 3) UUID of the name in the namespace
+     */
+    public static UUID uuid3(UUID namespace, byte[] name) {
+        return NameBasedGenerator.MD5.generate(namespace, name);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name, from its position to its limit. The position is left unchanged
+     * @return The name-based (MD5, version 3) UUID of the name in the namespace
+     */
+    public static UUID uuid3(UUID namespace, ByteBuffer name) {
+        return NameBasedGenerator.MD5.generate(namespace, name);
+    }
+
+    /**
+     * Generate the name-based (MD5, version 3) UUIDs of a batch of names in one namespace.
+     *
+     * @param namespace The namespace
+     * @param names The names, hashed as UTF-8
+     * @param msb Receives the most significant bits of the UUID of names[i] at index i
+     * @param lsb Receives the least significant bits of the UUID of names[i] at index i
+     */
+    public static void uuid3(UUID namespace, CharSequence[] names, long[] msb, long[] lsb) {
+        NameBasedGenerator.MD5.generate(namespace, names, msb, lsb);
+    }
+
+    /**
+     * @param namespace The namespace, e.g. {@link NameBasedGenerator#NAMESPACE_DNS}
+     * @param name The name, hashed as UTF-8
+     * @return The name-based (SHA-1, version 5) UUID of the name in the namespace
+     */
+    public static UUID uuid5(UUID namespace, CharSequence name) {
+        return NameBasedGenerator.SHA1.generate(namespace, name);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name
+     * @return The name-based (SHA-1, version 5) UUID of the name in the namespace
+     */
+    public static UUID uuid5(UUID namespace, byte[] name) {
+        return NameBasedGenerator.SHA1.generate(namespace, name);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name, from its position to its limit. The position is left unchanged
+     * @return The name-based (SHA-1, version 5) UUID of the name in the namespace
+     */
+    public static UUID uuid5(UUID namespace, ByteBuffer name) {
+        return NameBasedGenerator.SHA1.generate(namespace, name);
+    }
+
+    /**
+     * Generate the name-based (SHA-1, version 5) UUIDs of a batch of names in one namespace.
+     *
+     * @param namespace The namespace
+     * @param names The names, hashed as UTF-8
+     * @param msb Receives the most significant bits of the UUID of names[i] at index i
+     * @param lsb Receives the least significant bits of the UUID of names[i] at index i
+     */
+    public static void uuid5(UUID namespace, CharSequence[] names, long[] msb, long[] lsb) {
+        NameBasedGenerator.SHA1.generate(namespace, names, msb, lsb);
     }
 
     /**
@@ -63,7 +186,34 @@ public class UUIDs {
      * @return
      */
     public static UUID uuid6() {
-        return uuid6(uuid1());
+        GeneratorMetrics.generated(UuidFlavor.UUID6, 1);
+        return Version1.GENERATOR.uuid6();
+    }
+
+    /**
+     * Generate a version 6 UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void uuid6(long[] dest, int offset) {
+        GeneratorMetrics.generated(UuidFlavor.UUID6, 1);
+        Version1.GENERATOR.uuid6(dest, offset);
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of ascending version 6 UUIDs whose timestamps are
+     * claimed in one atomic operation.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public static void uuid6(long[] msb, long[] lsb, int offset, int length) {
+        GeneratorMetrics.generated(UuidFlavor.UUID6, length);
+        Version1.GENERATOR.uuid6(msb, lsb, offset, length);
     }
 
     /**
@@ -83,6 +233,52 @@ public class UUIDs {
         return new UUID(ut2, uuid1.getLeastSignificantBits());
     }
 
+    /**
+     * <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-7">RFC 9562 UUID version 7</a>.
+     * Sorts by creation time, and strictly increases within a millisecond.
+     *
+     * @return
+     */
+    public static UUID uuid7() {
+        GeneratorMetrics.generated(UuidFlavor.UUID7, 1);
+        return Version7.GENERATOR.generate();
+    }
+
+    /**
+     * Generate a version 7 UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void uuid7(long[] dest, int offset) {
+        GeneratorMetrics.generated(UuidFlavor.UUID7, 1);
+        Version7.GENERATOR.generate(dest, offset);
+    }
+
+    /**
+     * @param n The number of UUIDs to generate
+     * @return n ascending version 7 UUIDs claimed in one atomic operation
+     */
+    public static UUID[] uuid7(int n) {
+        GeneratorMetrics.generated(UuidFlavor.UUID7, n);
+        return Version7.GENERATOR.generate(n);
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of ascending version 7 UUIDs claimed in one atomic
+     * operation.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public static void uuid7(long[] msb, long[] lsb, int offset, int length) {
+        GeneratorMetrics.generated(UuidFlavor.UUID7, length);
+        Version7.GENERATOR.fill(msb, lsb, offset, length);
+    }
+
     /**
      * @return
      */
@@ -90,6 +286,14 @@ public class UUIDs {
         return CounterSequenceGenerator.nextUuid();
     }
 
+    /**
+     * @param n The number of UUIDs to generate
+     * @return n counter UUIDs that share one timestamp and a contiguous counter block
+     */
+    public static UUID[] uuidCounter(int n) {
+        return CounterSequenceGenerator.nextUuids(n);
+    }
+
     /**
      * @return
      */
@@ -97,6 +301,14 @@ public class UUIDs {
         return TimeSequenceGenerator.nextUuid();
     }
 
+    /**
+     * @param n The number of UUIDs to generate
+     * @return n sequence UUIDs that share one timestamp and a contiguous counter block
+     */
+    public static UUID[] uuidSequence(int n) {
+        return TimeSequenceGenerator.nextUuids(n);
+    }
+
 
     /**
      * <a href="http://www.informit.com/articles/article.aspx?p=25862&seqNum=7">COMBined UUID</a>
@@ -111,22 +323,76 @@ public class UUIDs {
      * ` fastest changing
      * </pre>
      *
-     * This should satisfy SQL servers insert order if you use a UUID as primary,
-     * clustered key.
+     * This targets the byte precedence {@code F E D C B A 9 8} described for COMBs. It is not
+     * SQL Server's uniqueidentifier order
+     * ({@link org.mbari.uuid.order.KeyOrder#SQL_SERVER}), so COMBs are not in insert order in
+     * a SQL Server clustered key.
      * @return
      */
     public static UUID comb() {
+        return comb(Entropy.BUFFERED);
+    }
+
+    /**
+     * A {@link #comb()} whose random bits come from the given source.
+     *
+     * @param entropy The source of the random bits
+     * @return
+     */
+    public static UUID comb(Entropy entropy) {
+        GeneratorMetrics.generated(UuidFlavor.COMB, 1);
 
-        // Generate time bits. Reverse byte order so that time is sorted
-        // using SQL servers weird sort order.
-        UUID uuid6 = uuid6();
+        // Generate time bits. Reverse byte order so the slowest changing time byte is last.
+        // This is not SQL Server's uniqueidentifier order, see KeyOrder.SQL_SERVER
+        UUID uuid6 = Version1.GENERATOR.uuid6();
         long time = uuid6.getMostSignificantBits();
         long emit = Long.reverseBytes(time);
 
         // Generate random bits
-        UUID uuid4 = uuid4();
-        return new UUID(uuid4.getMostSignificantBits(), emit);
+        return new UUID(uuid4Msb(entropy.nextLong()), emit);
+
+    }
+
+    /**
+     * Generate a {@link #comb()} without allocating a {@link UUID}.
+     *
+     * @param entropy The source of the random bits
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void comb(Entropy entropy, long[] dest, int offset) {
+        GeneratorMetrics.generated(UuidFlavor.COMB, 1);
+        Version1.GENERATOR.uuid6(dest, offset);
+        dest[offset + 1] = Long.reverseBytes(dest[offset]);
+        dest[offset] = uuid4Msb(entropy.nextLong());
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of {@link #comb()}s whose timestamps are claimed in
+     * one atomic operation.
+     *
+     * @param entropy The source of the random bits
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public static void comb(Entropy entropy, long[] msb, long[] lsb, int offset, int length) {
+        GeneratorMetrics.generated(UuidFlavor.COMB, length);
+        Version1.GENERATOR.uuid6(msb, lsb, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            lsb[i] = Long.reverseBytes(msb[i]);
+            msb[i] = uuid4Msb(entropy.nextLong());
+        }
+    }
+
+    private static final class Version1 {
+        private static final Version1Generator GENERATOR = new Version1Generator();
+    }
 
+    private static final class Version7 {
+        private static final Version7Generator GENERATOR = new Version7Generator();
     }
 
 }
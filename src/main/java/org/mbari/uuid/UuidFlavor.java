@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid;
+
+import java.util.UUID;
+import org.mbari.uuid.sequence.CounterSequenceGenerator;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+
+/**
+ * The kinds of UUID {@link UUIDs} generates, as values that can be passed around, for example to
+ * choose what a {@link org.mbari.uuid.pool.UuidPool} pre-generates.
+ */
+public enum UuidFlavor {
+
+    /** {@link UUIDs#uuid1()} */
+    UUID1 {
+        @Override
+        public void generate(long[] dest, int offset) {
+            UUIDs.uuid1(dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            UUIDs.uuid1(msb, lsb, offset, length);
+        }
+    },
+
+    /** {@link UUIDs#uuid4()} */
+    UUID4 {
+        @Override
+        public void generate(long[] dest, int offset) {
+            UUIDs.uuid4(Entropy.BUFFERED, dest, offset);
+        }
+    },
+
+    /** {@link UUIDs#uuid6()} */
+    UUID6 {
+        @Override
+        public void generate(long[] dest, int offset) {
+            UUIDs.uuid6(dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            UUIDs.uuid6(msb, lsb, offset, length);
+        }
+    },
+
+    /** {@link UUIDs#uuid7()} */
+    UUID7 {
+        @Override
+        public void generate(long[] dest, int offset) {
+            UUIDs.uuid7(dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            UUIDs.uuid7(msb, lsb, offset, length);
+        }
+    },
+
+    /** {@link UUIDs#comb()} */
+    COMB {
+        @Override
+        public void generate(long[] dest, int offset) {
+            UUIDs.comb(Entropy.BUFFERED, dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            UUIDs.comb(Entropy.BUFFERED, msb, lsb, offset, length);
+        }
+    },
+
+    /** {@link UUIDs#uuidCounter()} */
+    COUNTER {
+        @Override
+        public void generate(long[] dest, int offset) {
+            CounterSequenceGenerator.nextUuid(dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            CounterSequenceGenerator.fill(msb, lsb, offset, length);
+        }
+    },
+
+    /** {@link UUIDs#uuidSequence()} */
+    SEQUENCE {
+        @Override
+        public void generate(long[] dest, int offset) {
+            TimeSequenceGenerator.nextUuid(dest, offset);
+        }
+
+        @Override
+        public void fill(long[] msb, long[] lsb, int offset, int length) {
+            TimeSequenceGenerator.fill(msb, lsb, offset, length);
+        }
+    };
+
+    /**
+     * Generate a UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public abstract void generate(long[] dest, int offset);
+
+    /**
+     * Fill a range of the arrays with a batch of UUIDs. The time-based and sequence flavors claim
+     * the timestamps or counter values for the whole batch with one atomic operation.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public void fill(long[] msb, long[] lsb, int offset, int length) {
+        long[] bits = new long[2];
+        for (int i = offset; i < offset + length; i++) {
+            generate(bits, 0);
+            msb[i] = bits[0];
+            lsb[i] = bits[1];
+        }
+    }
+
+    /**
+     * @return A new UUID
+     */
+    public UUID generate() {
+        long[] bits = new long[2];
+        generate(bits, 0);
+        return new UUID(bits[0], bits[1]);
+    }
+}
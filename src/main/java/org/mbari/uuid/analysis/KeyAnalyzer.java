@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.analysis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.mbari.uuid.codec.TextCodec;
+
+/**
+ * Scans a large file of stored UUID keys and collects {@link KeyStats}: counts per version and
+ * layout, a creation-time histogram and per process id / MAC fragment counts for the 'b'
+ * sequence layout.
+ *
+ * The file is split into chunks that are memory-mapped and decoded in parallel with fork-join.
+ * Keys are decoded straight from the mapped bytes, so the heap does not grow with the size of the
+ * file. A mapping is only released when its buffer is garbage collected, so address space for
+ * chunks already scanned may stay reserved until then. Two formats are supported:
+ * <ul>
+ *     <li>{@link Format#TEXT}: one UUID per line in the 36 character form. Blank lines are
+ *     skipped, other lines that are not a UUID are counted as invalid.</li>
+ *     <li>{@link Format#BINARY}: packed 16 byte big-endian UUIDs (most significant bits first).</li>
+ * </ul>
+ *
+ * <pre>
+ * java -cp uuid-gen.jar org.mbari.uuid.analysis.KeyAnalyzer keys.txt [text|binary] [PT1H]
+ * </pre>
+ */
+public class KeyAnalyzer {
+
+    /** The layout of the input file */
+    public enum Format { TEXT, BINARY }
+
+    /** Default size of the region each leaf task maps */
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    /** Longest text line a chunk will read past its end to finish */
+    private static final int MAX_LINE = 256;
+
+    private final Duration bucketWidth;
+    private final long chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param bucketWidth The width of each creation-time histogram bucket
+     */
+    public KeyAnalyzer(Duration bucketWidth) {
+        this(bucketWidth, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param bucketWidth The width of each creation-time histogram bucket
+     * @param chunkSize The number of bytes each leaf task maps and scans. Rounded down to a
+     *                  multiple of 16
+     * @param pool The pool that runs the scan
+     */
+    public KeyAnalyzer(Duration bucketWidth, long chunkSize, ForkJoinPool pool) {
+        this.bucketWidth = bucketWidth;
+        this.chunkSize = chunkSize & ~15L;
+        this.pool = pool;
+        if (this.chunkSize <= 0 || chunkSize > Integer.MAX_VALUE - MAX_LINE) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+    }
+
+    /**
+     * @param file The file of keys
+     * @param format The layout of the file
+     * @return The stats for every key in the file
+     * @throws IOException If the file can not be read
+     */
+    public KeyStats analyze(Path file, Format format) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (format == Format.BINARY && size % 16 != 0) {
+                throw new IOException("Binary key file length is not a multiple of 16: " + file);
+            }
+            return pool.invoke(new Scan(channel, format, size, 0, size));
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class Scan extends RecursiveTask<KeyStats> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final Format format;
+        private final long size;
+        private final long start;
+        private final long end;
+
+        Scan(FileChannel channel, Format format, long size, long start, long end) {
+            this.channel = channel;
+            this.format = format;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected KeyStats compute() {
+            if (end - start > chunkSize) {
+                long mid = start + (((end - start) / 2) & ~15L);
+                var left = new Scan(channel, format, size, start, mid);
+                var right = new Scan(channel, format, size, mid, end);
+                left.fork();
+                return right.compute().merge(left.join());
+            }
+            var stats = new KeyStats(bucketWidth);
+            try {
+                if (format == Format.BINARY) {
+                    scanBinary(stats);
+                }
+                else {
+                    scanText(stats);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return stats;
+        }
+
+        private void scanBinary(KeyStats stats) throws IOException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            for (int i = 0; i < buffer.limit(); i += 16) {
+                stats.add(buffer.getLong(i), buffer.getLong(i + 8));
+            }
+        }
+
+        /**
+         * A line belongs to the chunk that holds its first byte. The mapping starts one byte early
+         * to see whether the chunk starts on a line boundary and runs past the end to finish the
+         * last line.
+         */
+        private void scanText(KeyStats stats) throws IOException {
+            long mapStart = start == 0 ? 0 : start - 1;
+            long mapEnd = Math.min(size, end + MAX_LINE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int limit = buffer.limit();
+            int stop = (int) (end - mapStart);
+            int pos = 0;
+            if (start > 0) {
+                pos = 1;
+                if (buffer.get(0) != '\n') {
+                    while (pos < limit && buffer.get(pos - 1) != '\n') {
+                        pos++;
+                    }
+                }
+            }
+
+            byte[] line = new byte[TextCodec.LENGTH];
+            while (pos < stop) {
+                int eol = pos;
+                while (eol < limit && buffer.get(eol) != '\n') {
+                    eol++;
+                }
+                int last = eol;
+                while (last > pos && buffer.get(last - 1) <= ' ') {
+                    last--;
+                }
+                int length = last - pos;
+                if (length == TextCodec.LENGTH) {
+                    buffer.get(pos, line);
+                    try {
+                        stats.add(TextCodec.parseMsb(line, 0), TextCodec.parseLsb(line, 0));
+                    }
+                    catch (IllegalArgumentException e) {
+                        stats.addInvalid();
+                    }
+                }
+                else if (length > 0) {
+                    stats.addInvalid();
+                }
+                pos = eol + 1;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: KeyAnalyzer <file> [text|binary] [histogram bucket, e.g. PT1H]");
+            System.exit(1);
+        }
+        Format format = args.length > 1 ? Format.valueOf(args[1].toUpperCase()) : Format.TEXT;
+        Duration bucket = args.length > 2 ? Duration.parse(args[2]) : Duration.ofHours(1);
+        new KeyAnalyzer(bucket).analyze(Path.of(args[0]), format).print(System.out);
+    }
+}
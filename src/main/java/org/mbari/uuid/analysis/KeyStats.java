@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.analysis;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.sequence.DecomposedUUID;
+
+/**
+ * Counts collected by {@link KeyAnalyzer}: keys per version and per layout, a histogram of
+ * creation times and, for the 'b' sequence layout, keys per process id and per MAC fragment.
+ *
+ * Instances are filled by a single thread and then merged, so they are not thread-safe.
+ */
+public class KeyStats {
+
+    private final long bucketMillis;
+    private long total;
+    private long invalid;
+    private final long[] versions = new long[16];
+    private final long[] layouts = new long[Layout.values().length];
+    private final Map<Long, long[]> histogram = new HashMap<>();
+    private final Map<Long, long[]> processIds = new HashMap<>();
+    private final Map<Long, long[]> macFragments = new HashMap<>();
+
+    /**
+     * @param bucketWidth The width of each creation-time histogram bucket
+     */
+    public KeyStats(Duration bucketWidth) {
+        this.bucketMillis = bucketWidth.toMillis();
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketWidth must be at least 1 ms. Found " + bucketWidth);
+        }
+    }
+
+    /**
+     * Count one key.
+     *
+     * @param msb The most significant bits of the key
+     * @param lsb The least significant bits of the key
+     */
+    public void add(long msb, long lsb) {
+        total++;
+        versions[Layout.version(msb)]++;
+        Layout layout = Layout.of(msb, lsb);
+        layouts[layout.ordinal()]++;
+        long millis = layout.epochMillis(msb, lsb);
+        if (millis != Layout.NO_TIMESTAMP) {
+            increment(histogram, Math.floorDiv(millis, bucketMillis) * bucketMillis);
+        }
+        if (layout == Layout.SEQUENCE) {
+            increment(processIds, DecomposedUUID.processId(msb, lsb));
+            increment(macFragments, DecomposedUUID.macFragment(msb, lsb));
+        }
+    }
+
+    /**
+     * Count a key that could not be read.
+     */
+    public void addInvalid() {
+        invalid++;
+    }
+
+    /**
+     * Add the counts from another instance to this one.
+     *
+     * @param other Stats with the same bucket width
+     * @return this
+     */
+    public KeyStats merge(KeyStats other) {
+        if (other.bucketMillis != bucketMillis) {
+            throw new IllegalArgumentException("Can not merge stats with different bucket widths");
+        }
+        total += other.total;
+        invalid += other.invalid;
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] += other.versions[i];
+        }
+        for (int i = 0; i < layouts.length; i++) {
+            layouts[i] += other.layouts[i];
+        }
+        merge(histogram, other.histogram);
+        merge(processIds, other.processIds);
+        merge(macFragments, other.macFragments);
+        return this;
+    }
+
+    private static void increment(Map<Long, long[]> counts, long key) {
+        counts.computeIfAbsent(key, k -> new long[1])[0]++;
+    }
+
+    private static void merge(Map<Long, long[]> into, Map<Long, long[]> from) {
+        from.forEach((key, count) -> into.computeIfAbsent(key, k -> new long[1])[0] += count[0]);
+    }
+
+    private static SortedMap<Long, Long> toSortedMap(Map<Long, long[]> counts) {
+        var map = new TreeMap<Long, Long>();
+        counts.forEach((key, count) -> map.put(key, count[0]));
+        return Collections.unmodifiableSortedMap(map);
+    }
+
+    /**
+     * @return The number of keys read, not counting invalid ones
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The number of entries that could not be parsed as a UUID
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * @param version A version nibble from 0 to 15
+     * @return The number of keys with that version
+     */
+    public long getVersionCount(int version) {
+        return versions[version];
+    }
+
+    /**
+     * @param layout A layout
+     * @return The number of keys with that layout
+     */
+    public long getLayoutCount(Layout layout) {
+        return layouts[layout.ordinal()];
+    }
+
+    /**
+     * @return The number of keys in each creation-time bucket, keyed by the start of the bucket in
+     *     UTC milliseconds since epoch
+     */
+    public SortedMap<Long, Long> getHistogram() {
+        return toSortedMap(histogram);
+    }
+
+    /**
+     * @return The number of 'b' keys generated by each process id
+     */
+    public SortedMap<Long, Long> getProcessIdCounts() {
+        return toSortedMap(processIds);
+    }
+
+    /**
+     * @return The number of 'b' keys generated by each 28 bit MAC fragment
+     */
+    public SortedMap<Long, Long> getMacFragmentCounts() {
+        return toSortedMap(macFragments);
+    }
+
+    /**
+     * Write a plain text report.
+     *
+     * @param out Where to write the report
+     */
+    public void print(PrintStream out) {
+        out.printf("keys: %d%ninvalid: %d%n", total, invalid);
+        out.println("versions:");
+        for (int i = 0; i < versions.length; i++) {
+            if (versions[i] > 0) {
+                out.printf("  %x: %d%n", i, versions[i]);
+            }
+        }
+        out.println("layouts:");
+        for (Layout layout : Layout.values()) {
+            if (layouts[layout.ordinal()] > 0) {
+                out.printf("  %s: %d%n", layout, layouts[layout.ordinal()]);
+            }
+        }
+        out.println("created:");
+        getHistogram().forEach((bucket, count) -> out.printf("  %s: %d%n", Instant.ofEpochMilli(bucket), count));
+        out.println("process ids:");
+        getProcessIdCounts().forEach((pid, count) -> out.printf("  %d: %d%n", pid, count));
+        out.println("mac fragments:");
+        getMacFragmentCounts().forEach((mac, count) -> out.printf("  %07x: %d%n", mac, count));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.clock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A coarse clock whose time is refreshed by a background daemon thread. Reading it is a single
+ * volatile read, so it costs almost nothing on the hot path. The trade off is that the time can
+ * lag the source clock by up to one tick period.
+ *
+ * <pre>
+ * CachedClock clock = new CachedClock();
+ * TimeSequenceGenerator.setClock(clock);
+ * // ...
+ * clock.close(); // stops the ticker thread
+ * </pre>
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * A clock that caches {@link Clock#systemUTC()} and refreshes it every millisecond.
+     */
+    public CachedClock() {
+        this(Clock.systemUTC(), Duration.ofMillis(1));
+    }
+
+    /**
+     * @param source The clock to cache
+     * @param tickPeriod How often the cached time is refreshed from the source
+     */
+    public CachedClock(Clock source, Duration tickPeriod) {
+        if (tickPeriod.isNegative() || tickPeriod.isZero()) {
+            throw new IllegalArgumentException("tickPeriod must be positive. Found " + tickPeriod);
+        }
+        this.ticker = new Ticker(source, tickPeriod.toNanos());
+        this.zone = source.getZone();
+        ticker.start();
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @param zone The time-zone to use
+     * @return A clock sharing this clock's ticker thread
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CachedClock(ticker, zone);
+    }
+
+    /**
+     * Stop the ticker thread. The clock keeps returning the last time it cached.
+     */
+    @Override
+    public void close() {
+        ticker.running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private static final class Ticker extends Thread {
+
+        private final Clock source;
+        private final long periodNanos;
+        private volatile long millis;
+        private volatile boolean running = true;
+
+        Ticker(Clock source, long periodNanos) {
+            super("uuid-clock-ticker");
+            setDaemon(true);
+            this.source = source;
+            this.periodNanos = periodNanos;
+            this.millis = source.millis();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                millis = source.millis();
+                LockSupport.parkNanos(this, periodNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.clock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A deterministic clock that only moves when told to. Intended for tests that need to control
+ * the timestamps written into generated UUIDs, e.g. to check ordering or what happens when the
+ * clock steps backwards.
+ */
+public final class ManualClock extends Clock {
+
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    /**
+     * @param epochMilli The initial time in UTC milliseconds since epoch
+     */
+    public ManualClock(long epochMilli) {
+        this(new AtomicLong(epochMilli), ZoneOffset.UTC);
+    }
+
+    /**
+     * @param instant The initial time
+     */
+    public ManualClock(Instant instant) {
+        this(instant.toEpochMilli());
+    }
+
+    private ManualClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * @param epochMilli The new time in UTC milliseconds since epoch. May be earlier than the
+     *                   current time.
+     */
+    public void setMillis(long epochMilli) {
+        millis.set(epochMilli);
+    }
+
+    /**
+     * @param amount The amount to move the clock by. May be negative.
+     */
+    public void advance(Duration amount) {
+        millis.addAndGet(amount.toMillis());
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @param zone The time-zone to use
+     * @return A clock sharing this clock's time
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new ManualClock(millis, zone);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * {@link java.time.Clock} implementations for the generators. Use {@link java.time.Clock#systemUTC()}
+ * for the system clock (the default), {@link org.mbari.uuid.clock.CachedClock} to take the clock
+ * read off the hot path, and {@link org.mbari.uuid.clock.ManualClock} to control time in tests.
+ */
+package org.mbari.uuid.clock;
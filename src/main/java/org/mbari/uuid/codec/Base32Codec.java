@@ -0,0 +1,309 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.codec;
+
+import java.util.Arrays;
+import java.util.UUID;
+import org.mbari.uuid.order.KeyOrder;
+
+/**
+ * Formats and parses the 26 character Crockford base32 form of a UUID, e.g.
+ * {@code 10QR7ZRCAAQN9QMM0179JWMXPJ}. The 128 bits are written most significant first, 3 bits in
+ * the first character and 5 in each of the rest, with the alphabet
+ * {@code 0123456789ABCDEFGHJKMNPQRSTVWXYZ}. The alphabet is in ASCII order and the length is fixed,
+ * so the text sorts exactly like the bits it encodes.
+ *
+ * By default the bits are the UUID's bytes in order, so the text sorts in {@link KeyOrder#UNSIGNED}
+ * order; time-ordered UUID 6 and UUID 7 stay time-ordered as text. The overloads that take a
+ * {@link KeyOrder} encode that order's sort key instead, so the text sorts like the UUIDs do in
+ * that order. With {@link KeyOrder#SQL_SERVER} the timestamp of a UUID Sequence ('b') comes first
+ * and sequence UUIDs sort by time as text too.
+ *
+ * Output is upper case. Parsing accepts either case and, as Crockford specifies, reads I and L as
+ * 1 and O as 0. Nothing is allocated except the UUID returned by {@link #parse(CharSequence)}.
+ */
+public final class Base32Codec {
+
+    /** The number of characters in a formatted UUID */
+    public static final int LENGTH = 26;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /** Value of each ASCII character as a Crockford base32 digit, or -1 */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toLowerCase(DIGITS[i])] = (byte) i;
+        }
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+        VALUES['O'] = VALUES['o'] = 0;
+    }
+
+    private Base32Codec() {
+        // static methods only
+    }
+
+    /**
+     * @param uuid The UUID to format
+     * @param dest Receives 26 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(UUID uuid, char[] dest, int offset) {
+        format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dest, offset);
+    }
+
+    /**
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 26 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, char[] dest, int offset) {
+        encode(msb, lsb, dest, offset);
+    }
+
+    /**
+     * Format so the text sorts in the given order.
+     *
+     * @param order The order the text should sort in
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 26 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(KeyOrder order, long msb, long lsb, char[] dest, int offset) {
+        encode(order.keyHigh(msb, lsb), order.keyLow(msb, lsb), dest, offset);
+    }
+
+    /**
+     * Format as ASCII bytes.
+     *
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 26 bytes
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, byte[] dest, int offset) {
+        encode(msb, lsb, dest, offset);
+    }
+
+    /**
+     * Format as ASCII bytes that sort in the given order.
+     *
+     * @param order The order the text should sort in
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 26 bytes
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(KeyOrder order, long msb, long lsb, byte[] dest, int offset) {
+        encode(order.keyHigh(msb, lsb), order.keyLow(msb, lsb), dest, offset);
+    }
+
+    /**
+     * Format a batch of UUIDs as ASCII bytes, back to back with no separator.
+     *
+     * @param order The order the text should sort in
+     * @param msb The most significant bits of each UUID
+     * @param lsb The least significant bits of each UUID
+     * @param dest Receives 26 bytes per UUID
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(KeyOrder order, long[] msb, long[] lsb, byte[] dest, int offset) {
+        for (int i = 0; i < msb.length; i++) {
+            encode(order.keyHigh(msb[i], lsb[i]), order.keyLow(msb[i], lsb[i]), dest,
+                    offset + i * LENGTH);
+        }
+    }
+
+    /**
+     * @param s A string containing a UUID in base32
+     * @return The UUID
+     * @throws IllegalArgumentException if the text is not a UUID in base32
+     */
+    public static UUID parse(CharSequence s) {
+        return parse(KeyOrder.UNSIGNED, s);
+    }
+
+    /**
+     * @param order The order the text was formatted with
+     * @param s A string containing a UUID in base32
+     * @return The UUID
+     * @throws IllegalArgumentException if the text is not a UUID in base32
+     */
+    public static UUID parse(KeyOrder order, CharSequence s) {
+        if (s.length() != LENGTH) {
+            throw new IllegalArgumentException("Invalid UUID string: " + s);
+        }
+        long high = parseHigh(s, 0);
+        long low = parseLow(s, 0);
+        return new UUID(order.msb(high, low), order.lsb(high, low));
+    }
+
+    /**
+     * @param s Text containing a UUID in base32
+     * @param offset The index of the first character of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the text is not a UUID in base32
+     */
+    public static void parse(CharSequence s, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseHigh(s, offset);
+        dest[destOffset + 1] = parseLow(s, offset);
+    }
+
+    /**
+     * @param order The order the text was formatted with
+     * @param s Text containing a UUID in base32
+     * @param offset The index of the first character of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the text is not a UUID in base32
+     */
+    public static void parse(KeyOrder order, CharSequence s, int offset, long[] dest, int destOffset) {
+        long high = parseHigh(s, offset);
+        long low = parseLow(s, offset);
+        dest[destOffset] = order.msb(high, low);
+        dest[destOffset + 1] = order.lsb(high, low);
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in base32
+     * @param offset The index of the first byte of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the bytes are not a UUID in base32
+     */
+    public static void parse(byte[] ascii, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseHigh(ascii, offset);
+        dest[destOffset + 1] = parseLow(ascii, offset);
+    }
+
+    /**
+     * @param order The order the text was formatted with
+     * @param ascii ASCII bytes containing a UUID in base32
+     * @param offset The index of the first byte of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the bytes are not a UUID in base32
+     */
+    public static void parse(KeyOrder order, byte[] ascii, int offset, long[] dest, int destOffset) {
+        long high = parseHigh(ascii, offset);
+        long low = parseLow(ascii, offset);
+        dest[destOffset] = order.msb(high, low);
+        dest[destOffset + 1] = order.lsb(high, low);
+    }
+
+    /**
+     * Parse a batch of UUIDs stored back to back as ASCII bytes, 26 bytes each with no separator.
+     *
+     * @param order The order the text was formatted with
+     * @param ascii The formatted UUIDs
+     * @param offset The index of the first byte of the first UUID
+     * @param msb Receives the most significant bits of each UUID
+     * @param lsb Receives the least significant bits of each UUID
+     * @throws IllegalArgumentException if the bytes are not UUIDs in base32
+     */
+    public static void parse(KeyOrder order, byte[] ascii, int offset, long[] msb, long[] lsb) {
+        for (int i = 0; i < msb.length; i++) {
+            int start = offset + i * LENGTH;
+            long high = parseHigh(ascii, start);
+            long low = parseLow(ascii, start);
+            msb[i] = order.msb(high, low);
+            lsb[i] = order.lsb(high, low);
+        }
+    }
+
+    // 3 bits in digit 0, 60 in digits 1 to 12, 1 + 4 in digit 13 and 60 in digits 14 to 25
+
+    private static void encode(long high, long low, char[] dest, int offset) {
+        dest[offset] = DIGITS[(int) (high >>> 61)];
+        for (int i = 1; i < 13; i++) {
+            dest[offset + i] = DIGITS[(int) (high >>> (61 - 5 * i)) & 0x1F];
+        }
+        dest[offset + 13] = DIGITS[(int) (((high & 0x1) << 4) | (low >>> 60))];
+        for (int i = 14; i < LENGTH; i++) {
+            dest[offset + i] = DIGITS[(int) (low >>> (125 - 5 * i)) & 0x1F];
+        }
+    }
+
+    private static void encode(long high, long low, byte[] dest, int offset) {
+        dest[offset] = (byte) DIGITS[(int) (high >>> 61)];
+        for (int i = 1; i < 13; i++) {
+            dest[offset + i] = (byte) DIGITS[(int) (high >>> (61 - 5 * i)) & 0x1F];
+        }
+        dest[offset + 13] = (byte) DIGITS[(int) (((high & 0x1) << 4) | (low >>> 60))];
+        for (int i = 14; i < LENGTH; i++) {
+            dest[offset + i] = (byte) DIGITS[(int) (low >>> (125 - 5 * i)) & 0x1F];
+        }
+    }
+
+    private static long parseHigh(CharSequence s, int offset) {
+        long bits = first(s.charAt(offset));
+        for (int i = 1; i < 13; i++) {
+            bits = (bits << 5) | digit(s.charAt(offset + i));
+        }
+        return (bits << 1) | (digit(s.charAt(offset + 13)) >>> 4);
+    }
+
+    private static long parseLow(CharSequence s, int offset) {
+        long bits = digit(s.charAt(offset + 13)) & 0xF;
+        for (int i = 14; i < LENGTH; i++) {
+            bits = (bits << 5) | digit(s.charAt(offset + i));
+        }
+        return bits;
+    }
+
+    private static long parseHigh(byte[] ascii, int offset) {
+        long bits = first((char) (ascii[offset] & 0xFF));
+        for (int i = 1; i < 13; i++) {
+            bits = (bits << 5) | digit((char) (ascii[offset + i] & 0xFF));
+        }
+        return (bits << 1) | (digit((char) (ascii[offset + 13] & 0xFF)) >>> 4);
+    }
+
+    private static long parseLow(byte[] ascii, int offset) {
+        long bits = digit((char) (ascii[offset + 13] & 0xFF)) & 0xF;
+        for (int i = 14; i < LENGTH; i++) {
+            bits = (bits << 5) | digit((char) (ascii[offset + i] & 0xFF));
+        }
+        return bits;
+    }
+
+    private static long digit(char c) {
+        int n = c < 128 ? VALUES[c] : -1;
+        if (n < 0) {
+            throw new IllegalArgumentException("Error parsing UUID at character: " + c);
+        }
+        return n;
+    }
+
+    /** The first digit carries 3 bits, so 8 to Z would overflow 128 bits */
+    private static long first(char c) {
+        long n = digit(c);
+        if (n > 7) {
+            throw new IllegalArgumentException("Error parsing UUID at character: " + c);
+        }
+        return n;
+    }
+}
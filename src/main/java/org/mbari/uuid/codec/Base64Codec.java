@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.codec;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Formats and parses the 22 character URL-safe base64 form of a UUID, e.g.
+ * {@code IL4P_DFKvVN6UAE6Zcp20g}: the 16 bytes of the UUID in big-endian order encoded with the
+ * {@code A-Z a-z 0-9 - _} alphabet and no padding. This is the same text as
+ * {@code Base64.getUrlEncoder().withoutPadding()} produces, but works directly on the two longs of
+ * a UUID and on caller supplied buffers, so nothing is allocated.
+ *
+ * The alphabet is not in ASCII order, so the text does not sort like the UUIDs. Use
+ * {@link Base32Codec} for keys that must stay sortable as text.
+ */
+public final class Base64Codec {
+
+    /** The number of characters in a formatted UUID */
+    public static final int LENGTH = 22;
+
+    private static final char[] DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    /** Value of each ASCII character as a base64url digit, or -1 */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+        }
+    }
+
+    private Base64Codec() {
+        // static methods only
+    }
+
+    /**
+     * @param uuid The UUID to format
+     * @param dest Receives 22 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(UUID uuid, char[] dest, int offset) {
+        format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dest, offset);
+    }
+
+    /**
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 22 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, char[] dest, int offset) {
+        // 10 digits from msb, 1 straddling both longs, 10 from lsb and 2 bits left over
+        for (int i = 0; i < 10; i++) {
+            dest[offset + i] = DIGITS[(int) (msb >>> (58 - 6 * i)) & 0x3F];
+        }
+        dest[offset + 10] = DIGITS[(int) (((msb & 0xF) << 2) | (lsb >>> 62))];
+        for (int i = 0; i < 10; i++) {
+            dest[offset + 11 + i] = DIGITS[(int) (lsb >>> (56 - 6 * i)) & 0x3F];
+        }
+        dest[offset + 21] = DIGITS[(int) (lsb & 0x3) << 4];
+    }
+
+    /**
+     * Format as ASCII bytes.
+     *
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 22 bytes
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, byte[] dest, int offset) {
+        for (int i = 0; i < 10; i++) {
+            dest[offset + i] = (byte) DIGITS[(int) (msb >>> (58 - 6 * i)) & 0x3F];
+        }
+        dest[offset + 10] = (byte) DIGITS[(int) (((msb & 0xF) << 2) | (lsb >>> 62))];
+        for (int i = 0; i < 10; i++) {
+            dest[offset + 11 + i] = (byte) DIGITS[(int) (lsb >>> (56 - 6 * i)) & 0x3F];
+        }
+        dest[offset + 21] = (byte) DIGITS[(int) (lsb & 0x3) << 4];
+    }
+
+    /**
+     * Format a batch of UUIDs as ASCII bytes, back to back with no separator.
+     *
+     * @param msb The most significant bits of each UUID
+     * @param lsb The least significant bits of each UUID
+     * @param dest Receives 22 bytes per UUID
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long[] msb, long[] lsb, byte[] dest, int offset) {
+        for (int i = 0; i < msb.length; i++) {
+            format(msb[i], lsb[i], dest, offset + i * LENGTH);
+        }
+    }
+
+    /**
+     * @param s A string containing a UUID in URL-safe base64
+     * @return The UUID
+     * @throws IllegalArgumentException if the text is not a UUID in URL-safe base64
+     */
+    public static UUID parse(CharSequence s) {
+        if (s.length() != LENGTH) {
+            throw new IllegalArgumentException("Invalid UUID string: " + s);
+        }
+        return new UUID(parseMsb(s, 0), parseLsb(s, 0));
+    }
+
+    /**
+     * @param s Text containing a UUID in URL-safe base64
+     * @param offset The index of the first character of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the text is not a UUID in URL-safe base64
+     */
+    public static void parse(CharSequence s, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseMsb(s, offset);
+        dest[destOffset + 1] = parseLsb(s, offset);
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in URL-safe base64
+     * @param offset The index of the first byte of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the bytes are not a UUID in URL-safe base64
+     */
+    public static void parse(byte[] ascii, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseMsb(ascii, offset);
+        dest[destOffset + 1] = parseLsb(ascii, offset);
+    }
+
+    /**
+     * Parse a batch of UUIDs stored back to back as ASCII bytes, 22 bytes each with no separator.
+     *
+     * @param ascii The formatted UUIDs
+     * @param offset The index of the first byte of the first UUID
+     * @param msb Receives the most significant bits of each UUID
+     * @param lsb Receives the least significant bits of each UUID
+     * @throws IllegalArgumentException if the bytes are not UUIDs in URL-safe base64
+     */
+    public static void parse(byte[] ascii, int offset, long[] msb, long[] lsb) {
+        for (int i = 0; i < msb.length; i++) {
+            int start = offset + i * LENGTH;
+            msb[i] = parseMsb(ascii, start);
+            lsb[i] = parseLsb(ascii, start);
+        }
+    }
+
+    /**
+     * @param s Text containing a UUID in URL-safe base64
+     * @param offset The index of the first character of the UUID
+     * @return The most significant bits of the UUID
+     */
+    public static long parseMsb(CharSequence s, int offset) {
+        long bits = 0;
+        for (int i = 0; i < 10; i++) {
+            bits = (bits << 6) | digit(s.charAt(offset + i));
+        }
+        return (bits << 4) | (digit(s.charAt(offset + 10)) >>> 2);
+    }
+
+    /**
+     * @param s Text containing a UUID in URL-safe base64
+     * @param offset The index of the first character of the UUID
+     * @return The least significant bits of the UUID
+     */
+    public static long parseLsb(CharSequence s, int offset) {
+        long bits = digit(s.charAt(offset + 10)) & 0x3;
+        for (int i = 11; i < 21; i++) {
+            bits = (bits << 6) | digit(s.charAt(offset + i));
+        }
+        return (bits << 2) | last(s.charAt(offset + 21));
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in URL-safe base64
+     * @param offset The index of the first byte of the UUID
+     * @return The most significant bits of the UUID
+     */
+    public static long parseMsb(byte[] ascii, int offset) {
+        long bits = 0;
+        for (int i = 0; i < 10; i++) {
+            bits = (bits << 6) | digit((char) (ascii[offset + i] & 0xFF));
+        }
+        return (bits << 4) | (digit((char) (ascii[offset + 10] & 0xFF)) >>> 2);
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in URL-safe base64
+     * @param offset The index of the first byte of the UUID
+     * @return The least significant bits of the UUID
+     */
+    public static long parseLsb(byte[] ascii, int offset) {
+        long bits = digit((char) (ascii[offset + 10] & 0xFF)) & 0x3;
+        for (int i = 11; i < 21; i++) {
+            bits = (bits << 6) | digit((char) (ascii[offset + i] & 0xFF));
+        }
+        return (bits << 2) | last((char) (ascii[offset + 21] & 0xFF));
+    }
+
+    private static long digit(char c) {
+        int n = c < 128 ? VALUES[c] : -1;
+        if (n < 0) {
+            throw new IllegalArgumentException("Error parsing UUID at character: " + c);
+        }
+        return n;
+    }
+
+    /** The last digit carries 2 bits. The other 4 must be zero or the text is not canonical */
+    private static long last(char c) {
+        long n = digit(c);
+        if ((n & 0xF) != 0) {
+            throw new IllegalArgumentException("Error parsing UUID at character: " + c);
+        }
+        return n >>> 4;
+    }
+}
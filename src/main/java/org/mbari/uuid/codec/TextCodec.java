@@ -0,0 +1,311 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Formats and parses the canonical 36 character form of a UUID, e.g.
+ * {@code 20be0ffc-314a-bd53-7a50-013a65ca76d2}, for storing as char(36). Unlike
+ * {@link UUID#toString()} and {@link UUID#fromString(String)} these work directly on the two
+ * longs of a UUID and on caller supplied buffers, so nothing is allocated. Output is lower case;
+ * parsing accepts either case.
+ */
+public final class TextCodec {
+
+    /** The number of characters in a formatted UUID */
+    public static final int LENGTH = 36;
+
+    private static final char[] HEX =
+            {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    /** Value of each ASCII character as a hex digit, or -1 */
+    private static final byte[] NIBBLES = new byte[128];
+
+    static {
+        Arrays.fill(NIBBLES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            NIBBLES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            NIBBLES['a' + i] = (byte) (10 + i);
+            NIBBLES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private TextCodec() {
+        // static methods only
+    }
+
+    /**
+     * @param nibble A value from 0 to 15
+     * @return The lower case hex character for the nibble
+     */
+    public static char hexDigit(int nibble) {
+        return HEX[nibble & 0xF];
+    }
+
+    /**
+     * @param uuid The UUID to format
+     * @param dest Receives 36 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(UUID uuid, char[] dest, int offset) {
+        format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dest, offset);
+    }
+
+    /**
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 36 characters
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, char[] dest, int offset) {
+        for (int i = 0; i < 8; i++) {
+            dest[offset + i] = HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 8] = '-';
+        for (int i = 8; i < 12; i++) {
+            dest[offset + i + 1] = HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 13] = '-';
+        for (int i = 12; i < 16; i++) {
+            dest[offset + i + 2] = HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 18] = '-';
+        for (int i = 0; i < 4; i++) {
+            dest[offset + i + 19] = HEX[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 23] = '-';
+        for (int i = 4; i < 16; i++) {
+            dest[offset + i + 20] = HEX[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+        }
+    }
+
+    /**
+     * Format as ASCII bytes.
+     *
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 36 bytes
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long msb, long lsb, byte[] dest, int offset) {
+        for (int i = 0; i < 8; i++) {
+            dest[offset + i] = (byte) HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 8] = '-';
+        for (int i = 8; i < 12; i++) {
+            dest[offset + i + 1] = (byte) HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 13] = '-';
+        for (int i = 12; i < 16; i++) {
+            dest[offset + i + 2] = (byte) HEX[(int) (msb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 18] = '-';
+        for (int i = 0; i < 4; i++) {
+            dest[offset + i + 19] = (byte) HEX[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+        }
+        dest[offset + 23] = '-';
+        for (int i = 4; i < 16; i++) {
+            dest[offset + i + 20] = (byte) HEX[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+        }
+    }
+
+    /**
+     * Format as ASCII bytes at the buffer's position, advancing it by 36.
+     *
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param dest Receives 36 bytes
+     */
+    public static void format(long msb, long lsb, ByteBuffer dest) {
+        int position = dest.position();
+        if (dest.remaining() < LENGTH) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            format(msb, lsb, dest.array(), dest.arrayOffset() + position);
+        }
+        else {
+            for (int i = 0, j = 0; i < LENGTH; i++) {
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    dest.put(position + i, (byte) '-');
+                }
+                else {
+                    long bits = j < 16 ? msb : lsb;
+                    dest.put(position + i, (byte) HEX[(int) (bits >>> (60 - 4 * (j & 0xF))) & 0xF]);
+                    j++;
+                }
+            }
+        }
+        dest.position(position + LENGTH);
+    }
+
+    /**
+     * Format a batch of UUIDs back to back as ASCII bytes, 36 bytes each with no separator.
+     *
+     * @param msb The most significant bits of each UUID
+     * @param lsb The least significant bits of each UUID
+     * @param dest Receives 36 * msb.length bytes
+     * @param offset The index in dest to start writing at
+     */
+    public static void format(long[] msb, long[] lsb, byte[] dest, int offset) {
+        for (int i = 0; i < msb.length; i++) {
+            format(msb[i], lsb[i], dest, offset + i * LENGTH);
+        }
+    }
+
+    /**
+     * @param s A string containing a UUID in canonical form
+     * @return The UUID
+     * @throws IllegalArgumentException if the text is not a UUID in canonical form
+     */
+    public static UUID parse(CharSequence s) {
+        if (s.length() != LENGTH) {
+            throw new IllegalArgumentException("Invalid UUID string: " + s);
+        }
+        return new UUID(parseMsb(s, 0), parseLsb(s, 0));
+    }
+
+    /**
+     * @param s Text containing a UUID in canonical form
+     * @param offset The index of the first character of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the text is not a UUID in canonical form
+     */
+    public static void parse(CharSequence s, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseMsb(s, offset);
+        dest[destOffset + 1] = parseLsb(s, offset);
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in canonical form
+     * @param offset The index of the first byte of the UUID
+     * @param dest Receives the most significant bits at {@code destOffset} and the least significant
+     *             bits at {@code destOffset + 1}
+     * @param destOffset The index in dest to start writing at
+     * @throws IllegalArgumentException if the bytes are not a UUID in canonical form
+     */
+    public static void parse(byte[] ascii, int offset, long[] dest, int destOffset) {
+        dest[destOffset] = parseMsb(ascii, offset);
+        dest[destOffset + 1] = parseLsb(ascii, offset);
+    }
+
+    /**
+     * Parse a batch of UUIDs stored back to back as ASCII bytes, 36 bytes each with no separator.
+     *
+     * @param ascii The formatted UUIDs
+     * @param offset The index of the first byte of the first UUID
+     * @param msb Receives the most significant bits of each UUID
+     * @param lsb Receives the least significant bits of each UUID
+     * @throws IllegalArgumentException if the bytes are not UUIDs in canonical form
+     */
+    public static void parse(byte[] ascii, int offset, long[] msb, long[] lsb) {
+        for (int i = 0; i < msb.length; i++) {
+            int start = offset + i * LENGTH;
+            msb[i] = parseMsb(ascii, start);
+            lsb[i] = parseLsb(ascii, start);
+        }
+    }
+
+    /**
+     * @param s Text containing a UUID in canonical form
+     * @param offset The index of the first character of the UUID
+     * @return The most significant bits of the UUID
+     */
+    public static long parseMsb(CharSequence s, int offset) {
+        checkDash(s.charAt(offset + 8));
+        checkDash(s.charAt(offset + 13));
+        long bits = 0;
+        for (int i = 0; i < 18; i++) {
+            if (i != 8 && i != 13) {
+                bits = (bits << 4) | nibble(s.charAt(offset + i));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param s Text containing a UUID in canonical form
+     * @param offset The index of the first character of the UUID
+     * @return The least significant bits of the UUID
+     */
+    public static long parseLsb(CharSequence s, int offset) {
+        checkDash(s.charAt(offset + 18));
+        checkDash(s.charAt(offset + 23));
+        long bits = 0;
+        for (int i = 19; i < LENGTH; i++) {
+            if (i != 23) {
+                bits = (bits << 4) | nibble(s.charAt(offset + i));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in canonical form
+     * @param offset The index of the first byte of the UUID
+     * @return The most significant bits of the UUID
+     */
+    public static long parseMsb(byte[] ascii, int offset) {
+        checkDash((char) ascii[offset + 8]);
+        checkDash((char) ascii[offset + 13]);
+        long bits = 0;
+        for (int i = 0; i < 18; i++) {
+            if (i != 8 && i != 13) {
+                bits = (bits << 4) | nibble((char) (ascii[offset + i] & 0xFF));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param ascii ASCII bytes containing a UUID in canonical form
+     * @param offset The index of the first byte of the UUID
+     * @return The least significant bits of the UUID
+     */
+    public static long parseLsb(byte[] ascii, int offset) {
+        checkDash((char) ascii[offset + 18]);
+        checkDash((char) ascii[offset + 23]);
+        long bits = 0;
+        for (int i = 19; i < LENGTH; i++) {
+            if (i != 23) {
+                bits = (bits << 4) | nibble((char) (ascii[offset + i] & 0xFF));
+            }
+        }
+        return bits;
+    }
+
+    private static long nibble(char c) {
+        int n = c < 128 ? NIBBLES[c] : -1;
+        if (n < 0) {
+            throw new IllegalArgumentException("Error parsing UUID at character: " + c);
+        }
+        return n;
+    }
+
+    private static void checkDash(char c) {
+        if (c != '-') {
+            throw new IllegalArgumentException("Error parsing UUID. Expected '-' but found: " + c);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.collection;
+
+/**
+ * Hashes a UUID given as its two longs. The low bits of the result pick the slot in
+ * {@link UuidHashSet} and {@link UuidLongMap}, so they must be well mixed.
+ *
+ * The constants are tuned to the layouts this library generates. {@link #SEQUENCE} only mixes
+ * the bits that vary in 'b' UUIDs, {@link #RANDOM} skips mixing for version 4 UUIDs whose bits
+ * are already random, and {@link #DEFAULT} is safe for anything.
+ */
+@FunctionalInterface
+public interface UuidHasher {
+
+    /** Mixes all 128 bits. Use for mixed or unknown layouts, including UUID 1, 6 and 7 */
+    UuidHasher DEFAULT = (msb, lsb) -> mix(msb ^ mix(lsb));
+
+    /**
+     * For the 'b' sequence and counter layouts. The process id and MAC fragment are the same for
+     * every id from one process, so only the 32-bit counter and the 48-bit timestamp are mixed,
+     * in a single round.
+     */
+    UuidHasher SEQUENCE = (msb, lsb) -> mix((msb & 0xFFFFFFFF00000000L) ^ Long.rotateLeft(lsb, 16));
+
+    /**
+     * For version 4 UUIDs (and COMBs, whose most significant bits are random). No mixing, the low
+     * bits are already random.
+     */
+    UuidHasher RANDOM = (msb, lsb) -> msb ^ lsb;
+
+    /**
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @return The hash
+     */
+    long hash(long msb, long lsb);
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     *
+     * @param z A value
+     * @return The value with every bit affecting every other
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
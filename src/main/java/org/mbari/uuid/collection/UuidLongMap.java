@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.collection;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A map from UUIDs to longs stored in flat arrays, with no per-entry objects. The keys are pairs
+ * of longs in one array and the values sit in a parallel array. At the default load factor of
+ * 0.75 an entry costs 24 to 48 bytes, against roughly 80 for a {@code HashMap<UUID, Long>}.
+ * Absent keys are reported with the missing value given to the constructor. Not thread-safe.
+ *
+ * <pre>
+ * UuidLongMap firstSeen = new UuidLongMap(10_000_000, -1L, UuidHasher.DEFAULT);
+ * firstSeen.put(msb, lsb, System.currentTimeMillis());
+ * long millis = firstSeen.get(msb, lsb); // -1 if never seen
+ * </pre>
+ */
+public class UuidLongMap extends UuidTable {
+
+    /**
+     * Receives the entries of a map.
+     */
+    @FunctionalInterface
+    public interface Consumer {
+        /**
+         * @param msb The most significant bits of a key
+         * @param lsb The least significant bits of a key
+         * @param value The value stored for the key
+         */
+        void accept(long msb, long lsb, long value);
+    }
+
+    private final long missingValue;
+    private long[] values;
+    private long nilValue;
+
+    /**
+     * An empty map using {@link UuidHasher#DEFAULT}, with 0 as the missing value.
+     */
+    public UuidLongMap() {
+        this(16, 0L, UuidHasher.DEFAULT);
+    }
+
+    /**
+     * @param expectedSize The number of entries the map can hold before it grows
+     * @param missingValue Returned when a key is absent
+     * @param hasher Hashes the keys
+     */
+    public UuidLongMap(int expectedSize, long missingValue, UuidHasher hasher) {
+        super(expectedSize, hasher);
+        this.missingValue = missingValue;
+    }
+
+    @Override
+    void allocate(int capacity) {
+        super.allocate(capacity);
+        values = new long[capacity];
+    }
+
+    /**
+     * @return The value returned for absent keys
+     */
+    public long getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @return The value for the key, or the missing value
+     */
+    public long get(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return hasNil ? nilValue : missingValue;
+        }
+        int slot = find(msb, lsb);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    /**
+     * @param key A key
+     * @return The value for the key, or the missing value
+     */
+    public long get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @return true if the map has an entry for the key
+     */
+    public boolean containsKey(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return hasNil;
+        }
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * @param key A key
+     * @return true if the map has an entry for the key
+     */
+    public boolean containsKey(UUID key) {
+        return containsKey(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @param value The value to store
+     * @return The previous value, or the missing value if there was none
+     */
+    public long put(long msb, long lsb, long value) {
+        if (msb == 0 && lsb == 0) {
+            long previous = hasNil ? nilValue : missingValue;
+            if (!hasNil) {
+                hasNil = true;
+                size++;
+            }
+            nilValue = value;
+            return previous;
+        }
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        slot = insert(-slot - 1, msb, lsb);
+        values[slot] = value;
+        return missingValue;
+    }
+
+    /**
+     * @param key A key
+     * @param value The value to store
+     * @return The previous value, or the missing value if there was none
+     */
+    public long put(UUID key, long value) {
+        return put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @return The value that was stored, or the missing value if there was none
+     */
+    public long remove(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (!hasNil) {
+                return missingValue;
+            }
+            hasNil = false;
+            size--;
+            return nilValue;
+        }
+        int slot = find(msb, lsb);
+        if (slot < 0) {
+            return missingValue;
+        }
+        long previous = values[slot];
+        delete(slot);
+        return previous;
+    }
+
+    /**
+     * @param key A key
+     * @return The value that was stored, or the missing value if there was none
+     */
+    public long remove(UUID key) {
+        return remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * Remove every entry. The capacity is kept.
+     */
+    public void clear() {
+        clearKeys();
+        Arrays.fill(values, 0);
+    }
+
+    /**
+     * @param consumer Called once for each entry, in no particular order
+     */
+    public void forEach(Consumer consumer) {
+        if (hasNil) {
+            consumer.accept(0, 0, nilValue);
+        }
+        long[] k = keys;
+        for (int i = 0; i < values.length; i++) {
+            if (k[2 * i] != 0 || k[2 * i + 1] != 0) {
+                consumer.accept(k[2 * i], k[2 * i + 1], values[i]);
+            }
+        }
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            long m = oldKeys[2 * i];
+            long l = oldKeys[2 * i + 1];
+            if (m != 0 || l != 0) {
+                int slot = -find(m, l) - 1;
+                keys[2 * slot] = m;
+                keys[2 * slot + 1] = l;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.collection;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The open-addressing table shared by {@link UuidHashSet} and {@link UuidLongMap}. Keys are
+ * stored as (msb, lsb) pairs side by side in one long array and probed linearly, so a lookup
+ * usually touches one cache line. The nil UUID (all zeros) marks an empty slot; it is tracked
+ * with a flag when it is stored as a key. Removal shifts later entries back instead of leaving
+ * tombstones.
+ */
+abstract class UuidTable {
+
+    static final float LOAD_FACTOR = 0.75f;
+    static final int MAX_CAPACITY = 1 << 29;
+
+    final UuidHasher hasher;
+    long[] keys;
+    int mask;
+    int size;
+    int resizeAt;
+    boolean hasNil;
+
+    UuidTable(int expectedSize, UuidHasher hasher) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative. Found " + expectedSize);
+        }
+        this.hasher = Objects.requireNonNull(hasher);
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 4) / (double) LOAD_FACTOR);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    void allocate(int capacity) {
+        keys = new long[2 * capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    final int home(long msb, long lsb) {
+        return (int) hasher.hash(msb, lsb) & mask;
+    }
+
+    /**
+     * @return The slot holding the key, or -(slot + 1) for the empty slot where it would go.
+     *     Not for the nil UUID
+     */
+    final int find(long msb, long lsb) {
+        long[] k = keys;
+        int slot = home(msb, lsb);
+        while (true) {
+            long m = k[2 * slot];
+            long l = k[2 * slot + 1];
+            if (m == msb && l == lsb) {
+                return slot;
+            }
+            if (m == 0 && l == 0) {
+                return -(slot + 1);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Store a key in an empty slot found by {@link #find(long, long)}, growing the table if needed.
+     *
+     * @return The slot the key ended up in
+     */
+    final int insert(int slot, long msb, long lsb) {
+        keys[2 * slot] = msb;
+        keys[2 * slot + 1] = lsb;
+        if (++size > resizeAt) {
+            if (mask + 1 == MAX_CAPACITY) {
+                throw new IllegalStateException("Table is full: " + size + " entries");
+            }
+            rehash((mask + 1) << 1);
+            return find(msb, lsb);
+        }
+        return slot;
+    }
+
+    /**
+     * Remove the key in a slot, shifting back any later keys that probed past it.
+     */
+    final void delete(int slot) {
+        long[] k = keys;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            long m = k[2 * next];
+            long l = k[2 * next + 1];
+            if (m == 0 && l == 0) {
+                break;
+            }
+            int home = home(m, l);
+            // move next into the hole unless its home lies cyclically in (hole, next]
+            boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                k[2 * hole] = m;
+                k[2 * hole + 1] = l;
+                moveValue(next, hole);
+                hole = next;
+            }
+        }
+        k[2 * hole] = 0;
+        k[2 * hole + 1] = 0;
+        size--;
+    }
+
+    final void clearKeys() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasNil = false;
+    }
+
+    /** Copy the value, if any, from one slot to another */
+    abstract void moveValue(int from, int to);
+
+    /** Re-insert every entry into a table of the new capacity */
+    abstract void rehash(int capacity);
+
+    /**
+     * @return The number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.metrics;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects a generator's clock stepping backwards and reports it to {@link GeneratorMetrics}.
+ * Each regression is counted once, not once per id generated until the clock catches up.
+ */
+public final class ClockWatch {
+
+    private final AtomicLong latest = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param clock The clock that was read
+     * @param epochMilli The time read from it
+     */
+    public void observe(Clock clock, long epochMilli) {
+        if (!GeneratorMetrics.ENABLED) {
+            return;
+        }
+        long seen = latest.get();
+        if (epochMilli > seen) {
+            latest.compareAndSet(seen, epochMilli);
+        }
+        // A thread that read the clock just before another thread read a later time looks like a
+        // regression, so read the clock again before believing it.
+        else if (epochMilli < seen && clock.millis() < seen && latest.compareAndSet(seen, epochMilli)) {
+            GeneratorMetrics.clockRegression();
+        }
+    }
+}
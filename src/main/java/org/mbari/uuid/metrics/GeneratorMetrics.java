@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * Counts what the generators do: ids generated per {@link UuidFlavor}, contention on the
+ * time-based generators, clock regressions, sub-millisecond counter overflows and sequence
+ * counter wraparounds. Counts are kept in {@link LongAdder}s, so recording is an uncontended add
+ * to a per-thread cell.
+ *
+ * Ids are counted when generated through {@link org.mbari.uuid.UUIDs},
+ * {@link org.mbari.uuid.sequence.TimeSequenceGenerator} or
+ * {@link org.mbari.uuid.sequence.CounterSequenceGenerator}. Name-based version 3 and 5 ids
+ * ({@link org.mbari.uuid.name.NameBasedGenerator}) are not counted: they have no
+ * {@link UuidFlavor}, because a flavor generates ids without input and these need a namespace and
+ * a name.
+ *
+ * Counting is on by default, but nothing is published until asked for: the metrics are
+ * registered with the platform MBean server as {@value #OBJECT_NAME} the first time
+ * {@link #getInstance()} is called. Generating ids never starts the platform MBean server or a
+ * thread. Start the JVM with {@code -Dorg.mbari.uuid.metrics=false} to switch counting off; the
+ * checks then fold away in compiled code.
+ */
+public final class GeneratorMetrics implements GeneratorMetricsMXBean {
+
+    /** System property that switches metrics off when set to false */
+    public static final String ENABLED_PROPERTY = "org.mbari.uuid.metrics";
+
+    /** The JMX object name the metrics are registered under */
+    public static final String OBJECT_NAME = "org.mbari.uuid:type=GeneratorMetrics";
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    private static final UuidFlavor[] FLAVORS = UuidFlavor.values();
+    private static final GeneratorMetrics INSTANCE = new GeneratorMetrics();
+
+    private static boolean registered;
+
+    private final LongAdder[] generated = new LongAdder[FLAVORS.length];
+    private final LongAdder casRetries = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder counterOverflows = new LongAdder();
+    private final LongAdder counterWraps = new LongAdder();
+    private final LongAdder sameMillisecondWraps = new LongAdder();
+
+    /** The time of the last counter wrap, keyed by flavor ordinal &lt;&lt; 32 | lane */
+    private final Map<Long, Long> lastWrap = new ConcurrentHashMap<>();
+
+    private long[] rateCounts = new long[FLAVORS.length];
+    private long rateNanos = System.nanoTime();
+
+    private GeneratorMetrics() {
+        for (int i = 0; i < generated.length; i++) {
+            generated[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registers the MBean on the first call. Starting the platform MBean server can take a few
+     * hundred milliseconds.
+     *
+     * @return The metrics of this JVM
+     */
+    public static GeneratorMetrics getInstance() {
+        register();
+        return INSTANCE;
+    }
+
+    private static synchronized void register() {
+        if (!ENABLED || registered) {
+            return;
+        }
+        registered = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException | SecurityException e) {
+            // already registered by another class loader, or not allowed. The counts are
+            // still available from getInstance()
+        }
+    }
+
+    /**
+     * @return true unless switched off with the {@value #ENABLED_PROPERTY} system property
+     */
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @param flavor The flavor generated
+     * @param n The number of ids generated
+     */
+    public static void generated(UuidFlavor flavor, int n) {
+        if (ENABLED) {
+            INSTANCE.generated[flavor.ordinal()].add(n);
+        }
+    }
+
+    /**
+     * Record a failed compare-and-set that has to be retried.
+     */
+    public static void casRetry() {
+        if (ENABLED) {
+            INSTANCE.casRetries.increment();
+        }
+    }
+
+    /**
+     * Record a clock that stepped backwards.
+     */
+    public static void clockRegression() {
+        if (ENABLED) {
+            INSTANCE.clockRegressions.increment();
+        }
+    }
+
+    /**
+     * Record a sub-millisecond counter that ran out and pushed the timestamp ahead of the clock.
+     */
+    public static void counterOverflow() {
+        if (ENABLED) {
+            INSTANCE.counterOverflows.increment();
+        }
+    }
+
+    /**
+     * Record a sequence counter, or one lane of a striped counter, that went through all of its
+     * values. Lanes hand out disjoint values, so only a second wrap of the same lane in the same
+     * millisecond counts as a same-millisecond wrap.
+     *
+     * @param flavor The flavor whose counter wrapped
+     * @param lane The lane that wrapped. 0 for an unstriped counter
+     * @param epochMilli The timestamp of the ids generated when it wrapped
+     */
+    public static void counterWrap(UuidFlavor flavor, int lane, long epochMilli) {
+        if (ENABLED) {
+            INSTANCE.counterWraps.increment();
+            long key = (long) flavor.ordinal() << 32 | Integer.toUnsignedLong(lane);
+            Long previous = INSTANCE.lastWrap.put(key, epochMilli);
+            if (previous != null && previous == epochMilli) {
+                INSTANCE.sameMillisecondWraps.increment();
+            }
+        }
+    }
+
+    /**
+     * @param flavor A flavor
+     * @return The number of ids of that flavor generated
+     */
+    public long getGenerated(UuidFlavor flavor) {
+        return generated[flavor.ordinal()].sum();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Map<String, Long> getGenerated() {
+        var map = new LinkedHashMap<String, Long>();
+        for (UuidFlavor flavor : FLAVORS) {
+            map.put(flavor.name(), getGenerated(flavor));
+        }
+        return map;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getRatePerSecond() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1L, now - rateNanos) / 1e9;
+        var map = new LinkedHashMap<String, Double>();
+        for (UuidFlavor flavor : FLAVORS) {
+            long count = getGenerated(flavor);
+            map.put(flavor.name(), (count - rateCounts[flavor.ordinal()]) / seconds);
+            rateCounts[flavor.ordinal()] = count;
+        }
+        rateNanos = now;
+        return map;
+    }
+
+    @Override
+    public long getCasRetries() {
+        return casRetries.sum();
+    }
+
+    @Override
+    public long getClockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    @Override
+    public long getCounterOverflows() {
+        return counterOverflows.sum();
+    }
+
+    @Override
+    public long getCounterWraps() {
+        return counterWraps.sum();
+    }
+
+    @Override
+    public long getSameMillisecondWraps() {
+        return sameMillisecondWraps.sum();
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (LongAdder adder : generated) {
+            adder.reset();
+        }
+        casRetries.reset();
+        clockRegressions.reset();
+        counterOverflows.reset();
+        counterWraps.reset();
+        sameMillisecondWraps.reset();
+        rateCounts = new long[FLAVORS.length];
+        rateNanos = System.nanoTime();
+    }
+}
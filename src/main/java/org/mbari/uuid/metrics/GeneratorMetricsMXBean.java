@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link GeneratorMetrics}, registered as {@value GeneratorMetrics#OBJECT_NAME}.
+ */
+public interface GeneratorMetricsMXBean {
+
+    /**
+     * @return false if counting was switched off with the {@value GeneratorMetrics#ENABLED_PROPERTY}
+     *     system property
+     */
+    boolean isEnabled();
+
+    /**
+     * @return The number of ids generated, by flavor name
+     */
+    Map<String, Long> getGenerated();
+
+    /**
+     * @return Ids generated per second, by flavor name, since the previous call of this method
+     */
+    Map<String, Double> getRatePerSecond();
+
+    /**
+     * @return The number of compare-and-set attempts the time-based generators had to retry
+     *     because another thread got there first
+     */
+    long getCasRetries();
+
+    /**
+     * @return The number of times a generator saw its clock step backwards
+     */
+    long getClockRegressions();
+
+    /**
+     * @return The number of times a time-based generator used up its sub-millisecond counter and
+     *     ran its timestamp ahead of the clock
+     */
+    long getCounterOverflows();
+
+    /**
+     * @return The number of times a sequence generator counter, or one lane of a striped counter,
+     *     went through all of its values
+     */
+    long getCounterWraps();
+
+    /**
+     * @return The number of sequence counter wraps that happened in the same millisecond as the
+     *     previous wrap of the same lane, which means ids in that millisecond may repeat
+     */
+    long getSameMillisecondWraps();
+
+    /**
+     * Set every count back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.name;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Generates name-based UUIDs: version 3 (MD5) and version 5 (SHA-1) as defined in
+ * <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-5">RFC 9562</a>. The same
+ * namespace and name always give the same UUID, which makes them useful for deduplicating records.
+ *
+ * Each thread keeps its own {@link MessageDigest} and scratch buffers, so generating a UUID
+ * creates no digest and, apart from the returned {@link UUID}, allocates nothing. Names can be
+ * given as bytes, as a {@link ByteBuffer} or as a {@link CharSequence}, which is encoded as UTF-8
+ * straight into the scratch buffer, exactly as {@link String#getBytes(java.nio.charset.Charset)}
+ * would encode it.
+ */
+public final class NameBasedGenerator {
+
+    /** Version 3 UUIDs, hashed with MD5 */
+    public static final NameBasedGenerator MD5 = new NameBasedGenerator("MD5", 3);
+
+    /** Version 5 UUIDs, hashed with SHA-1 */
+    public static final NameBasedGenerator SHA1 = new NameBasedGenerator("SHA-1", 5);
+
+    /** The namespace for fully qualified domain names */
+    public static final UUID NAMESPACE_DNS = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+
+    /** The namespace for URLs */
+    public static final UUID NAMESPACE_URL = UUID.fromString("6ba7b811-9dad-11d1-80b4-00c04fd430c8");
+
+    /** The namespace for ISO OIDs */
+    public static final UUID NAMESPACE_OID = UUID.fromString("6ba7b812-9dad-11d1-80b4-00c04fd430c8");
+
+    /** The namespace for X.500 distinguished names */
+    public static final UUID NAMESPACE_X500 = UUID.fromString("6ba7b814-9dad-11d1-80b4-00c04fd430c8");
+
+    private final String algorithm;
+    private final long version;
+    private final ThreadLocal<State> state;
+
+    private NameBasedGenerator(String algorithm, int version) {
+        this.algorithm = algorithm;
+        this.version = (long) version << 12;
+        this.state = ThreadLocal.withInitial(State::new);
+    }
+
+    /**
+     * @return The UUID version generated, 3 or 5
+     */
+    public int getVersion() {
+        return (int) (version >>> 12);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name
+     * @return The UUID of the name in the namespace
+     */
+    public UUID generate(UUID namespace, byte[] name) {
+        return generate(namespace, name, 0, name.length);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name Holds the name
+     * @param offset The index of the first byte of the name
+     * @param length The length of the name in bytes
+     * @return The UUID of the name in the namespace
+     */
+    public UUID generate(UUID namespace, byte[] name, int offset, int length) {
+        State s = state.get();
+        s.start(namespace.getMostSignificantBits(), namespace.getLeastSignificantBits());
+        s.digest.update(name, offset, length);
+        s.finish();
+        return new UUID(s.msb, s.lsb);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name, from its position to its limit. The position is left unchanged
+     * @return The UUID of the name in the namespace
+     */
+    public UUID generate(UUID namespace, ByteBuffer name) {
+        State s = state.get();
+        s.start(namespace.getMostSignificantBits(), namespace.getLeastSignificantBits());
+        s.update(name);
+        s.finish();
+        return new UUID(s.msb, s.lsb);
+    }
+
+    /**
+     * @param namespace The namespace
+     * @param name The name, hashed as UTF-8
+     * @return The UUID of the name in the namespace
+     */
+    public UUID generate(UUID namespace, CharSequence name) {
+        State s = state.get();
+        s.start(namespace.getMostSignificantBits(), namespace.getLeastSignificantBits());
+        s.update(name);
+        s.finish();
+        return new UUID(s.msb, s.lsb);
+    }
+
+    /**
+     * Generate without allocating a {@link UUID}.
+     *
+     * @param namespace The namespace
+     * @param name The name, hashed as UTF-8
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void generate(UUID namespace, CharSequence name, long[] dest, int offset) {
+        State s = state.get();
+        s.start(namespace.getMostSignificantBits(), namespace.getLeastSignificantBits());
+        s.update(name);
+        s.finish();
+        dest[offset] = s.msb;
+        dest[offset + 1] = s.lsb;
+    }
+
+    /**
+     * Generate the UUIDs of a batch of names in one namespace. The most significant bits of the
+     * i-th UUID are written to msb[i] and the least significant bits to lsb[i].
+     *
+     * @param namespace The namespace
+     * @param names The names, hashed as UTF-8
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     */
+    public void generate(UUID namespace, CharSequence[] names, long[] msb, long[] lsb) {
+        State s = state.get();
+        long nsMsb = namespace.getMostSignificantBits();
+        long nsLsb = namespace.getLeastSignificantBits();
+        for (int i = 0; i < names.length; i++) {
+            s.start(nsMsb, nsLsb);
+            s.update(names[i]);
+            s.finish();
+            msb[i] = s.msb;
+            lsb[i] = s.lsb;
+        }
+    }
+
+    /**
+     * Generate the UUIDs of a batch of names in one namespace. The most significant bits of the
+     * i-th UUID are written to msb[i] and the least significant bits to lsb[i].
+     *
+     * @param namespace The namespace
+     * @param names The names
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     */
+    public void generate(UUID namespace, byte[][] names, long[] msb, long[] lsb) {
+        State s = state.get();
+        long nsMsb = namespace.getMostSignificantBits();
+        long nsLsb = namespace.getLeastSignificantBits();
+        for (int i = 0; i < names.length; i++) {
+            s.start(nsMsb, nsLsb);
+            s.digest.update(names[i]);
+            s.finish();
+            msb[i] = s.msb;
+            lsb[i] = s.lsb;
+        }
+    }
+
+    /** The digest and scratch space of one thread */
+    private final class State {
+
+        private final MessageDigest digest;
+        private final byte[] hash = new byte[64];
+        private final byte[] text = new byte[256];
+        private long msb;
+        private long lsb;
+
+        State() {
+            try {
+                digest = MessageDigest.getInstance(algorithm);
+            }
+            catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support MD5 and SHA-1
+                throw new IllegalStateException(algorithm + " is not available", e);
+            }
+        }
+
+        /** Reset the digest and hash the namespace */
+        void start(long nsMsb, long nsLsb) {
+            digest.reset();
+            putLong(hash, 0, nsMsb);
+            putLong(hash, 8, nsLsb);
+            digest.update(hash, 0, 16);
+        }
+
+        void update(ByteBuffer name) {
+            int position = name.position();
+            digest.update(name);
+            name.position(position);
+        }
+
+        /** Encode as UTF-8 into the text buffer, a buffer full at a time */
+        void update(CharSequence name) {
+            byte[] out = text;
+            int n = 0;
+            int length = name.length();
+            for (int i = 0; i < length; i++) {
+                if (n > out.length - 4) {
+                    digest.update(out, 0, n);
+                    n = 0;
+                }
+                char c = name.charAt(i);
+                if (c < 0x80) {
+                    out[n++] = (byte) c;
+                }
+                else if (c < 0x800) {
+                    out[n++] = (byte) (0xC0 | (c >> 6));
+                    out[n++] = (byte) (0x80 | (c & 0x3F));
+                }
+                else if (Character.isSurrogate(c)) {
+                    char d;
+                    if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(d = name.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(c, d);
+                        i++;
+                        out[n++] = (byte) (0xF0 | (cp >> 18));
+                        out[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                        out[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                        out[n++] = (byte) (0x80 | (cp & 0x3F));
+                    }
+                    else {
+                        // an unpaired surrogate is replaced, as String.getBytes does
+                        out[n++] = '?';
+                    }
+                }
+                else {
+                    out[n++] = (byte) (0xE0 | (c >> 12));
+                    out[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    out[n++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            digest.update(out, 0, n);
+        }
+
+        /** Finish the hash and set the version and variant */
+        void finish() {
+            try {
+                digest.digest(hash, 0, hash.length);
+            }
+            catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            msb = (getLong(hash, 0) & ~0xF000L) | version;
+            lsb = (getLong(hash, 8) & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;  // IETF variant
+        }
+    }
+
+    private static void putLong(byte[] b, int offset, long v) {
+        for (int i = 0; i < 8; i++) {
+            b[offset + i] = (byte) (v >>> (56 - 8 * i));
+        }
+    }
+
+    private static long getLong(byte[] b, int offset) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = (v << 8) | (b[offset + i] & 0xFF);
+        }
+        return v;
+    }
+}
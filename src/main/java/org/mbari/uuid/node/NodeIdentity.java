@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.node;
+
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Enumeration;
+
+/**
+ * The identity of this JVM as used by the generators: a 48 bit node, normally a MAC address, and
+ * the process id. Version 1 and 6 UUIDs carry the whole node; UUID Sequence ('b') carries its low
+ * 28 bits and the process id modulo 65,536.
+ *
+ * Each value is resolved once, the first time it is needed, and cached. Either can be set
+ * explicitly with a system property or, if that is unset, an environment variable. That skips
+ * enumerating the network interfaces, which is the slow part of the first UUID in a short-lived
+ * JVM, and gives containers that share a MAC address (or have none) distinct nodes.
+ * <ul>
+ *     <li>Node: {@value #NODE_PROPERTY} or {@value #NODE_ENV}, as 12 hex digits optionally
+ *     separated by ':' or '-', e.g. {@code 02:42:ac:1c:00:02}. Otherwise the hardware address of
+ *     the first network interface that is neither loopback nor virtual, or, if there is none, a
+ *     random multicast address.</li>
+ *     <li>Process id: {@value #PID_PROPERTY} or {@value #PID_ENV}, as a non-negative decimal
+ *     number. Otherwise {@link ProcessHandle#pid()}.</li>
+ *     <li>Lease file: {@value #LEASE_PROPERTY} or {@value #LEASE_ENV}, the path of a
+ *     {@link NodeLease} file shared by the JVMs on the host. When set, UUID Sequence ids carry the
+ *     leased slot instead of the process id; see {@link #processSlot()}.</li>
+ * </ul>
+ */
+public final class NodeIdentity {
+
+    /** System property that sets the node */
+    public static final String NODE_PROPERTY = "org.mbari.uuid.node.id";
+
+    /** Environment variable that sets the node when {@value #NODE_PROPERTY} is unset */
+    public static final String NODE_ENV = "MBARI_UUID_NODE_ID";
+
+    /** System property that sets the process id */
+    public static final String PID_PROPERTY = "org.mbari.uuid.node.pid";
+
+    /** Environment variable that sets the process id when {@value #PID_PROPERTY} is unset */
+    public static final String PID_ENV = "MBARI_UUID_NODE_PID";
+
+    /** System property naming the shared node lease file */
+    public static final String LEASE_PROPERTY = "org.mbari.uuid.node.lease";
+
+    /** Environment variable naming the lease file when {@value #LEASE_PROPERTY} is unset */
+    public static final String LEASE_ENV = "MBARI_UUID_NODE_LEASE";
+
+    private static final long NODE_MASK = 0xFFFFFFFFFFFFL;
+
+    /** The multicast bit of the first byte, marking an address that is not a real interface */
+    private static final long MULTICAST = 0x010000000000L;
+
+    private NodeIdentity() {
+        // static methods only
+    }
+
+    /**
+     * @return The 48 bit node in the low bits of a long
+     */
+    public static long node() {
+        return Node.VALUE;
+    }
+
+    /**
+     * @return The node as 6 bytes, most significant first. A new array on each call
+     */
+    public static byte[] nodeBytes() {
+        long node = Node.VALUE;
+        byte[] bytes = new byte[6];
+        for (int i = 0; i < 6; i++) {
+            bytes[i] = (byte) (node >>> (40 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * @return The process id of this JVM
+     */
+    public static long pid() {
+        return Pid.VALUE;
+    }
+
+    /**
+     * The 16 bits that identify this process in a UUID Sequence ('b') id: the slot leased from the
+     * {@value #LEASE_PROPERTY} file if one is configured, otherwise the process id modulo 65,536.
+     *
+     * @return A value from 0 to 65,535
+     */
+    public static int processSlot() {
+        return Slot.VALUE;
+    }
+
+    /**
+     * @return The lease behind {@link #processSlot()}, or null if no lease file is configured
+     */
+    public static NodeLease lease() {
+        return Slot.LEASE;
+    }
+
+    private static final class Slot {
+        private static final NodeLease LEASE = resolveLease();
+        private static final int VALUE = LEASE != null ? LEASE.getSlot() : (int) (pid() % 65536);
+    }
+
+    private static NodeLease resolveLease() {
+        String value = setting(LEASE_PROPERTY, LEASE_ENV);
+        return value == null ? null : NodeLease.acquire(Path.of(value));
+    }
+
+    private static final class Node {
+        private static final long VALUE = resolveNode();
+    }
+
+    private static final class Pid {
+        private static final long VALUE = resolvePid();
+    }
+
+    private static String setting(String property, String env) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(env);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static long resolveNode() {
+        String value = setting(NODE_PROPERTY, NODE_ENV);
+        if (value != null) {
+            return parseNode(value);
+        }
+        long node = interfaceNode();
+        return node >= 0 ? node : (new SecureRandom().nextLong() & NODE_MASK) | MULTICAST;
+    }
+
+    private static long resolvePid() {
+        String value = setting(PID_PROPERTY, PID_ENV);
+        return value != null ? parsePid(value) : ProcessHandle.current().pid();
+    }
+
+    /**
+     * @return The hardware address of the first interface that is neither loopback nor virtual,
+     *     or -1 if there is none
+     */
+    private static long interfaceNode() {
+        try {
+            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            while (interfaces != null && interfaces.hasMoreElements()) {
+                NetworkInterface netInterface = interfaces.nextElement();
+                if (netInterface.isLoopback() || netInterface.isVirtual()) {
+                    continue;
+                }
+                byte[] mac = netInterface.getHardwareAddress();
+                if (mac != null && mac.length == 6) {
+                    long node = 0;
+                    for (byte b : mac) {
+                        node = (node << 8) | (b & 0xFF);
+                    }
+                    return node;
+                }
+            }
+        }
+        catch (SocketException e) {
+            // no network available
+        }
+        return -1;
+    }
+
+    /**
+     * @param value 12 hex digits, optionally separated by ':' or '-'
+     * @return The 48 bit node
+     */
+    static long parseNode(String value) {
+        String digits = value.replace(":", "").replace("-", "");
+        if (digits.length() != 12) {
+            throw new IllegalArgumentException(NODE_PROPERTY + " must be 12 hex digits. Found " + value);
+        }
+        try {
+            return Long.parseLong(digits, 16);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(NODE_PROPERTY + " must be 12 hex digits. Found " + value);
+        }
+    }
+
+    /**
+     * @param value A non-negative decimal number
+     * @return The process id
+     */
+    static long parsePid(String value) {
+        long pid;
+        try {
+            pid = Long.parseLong(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(PID_PROPERTY + " must be an integer. Found " + value);
+        }
+        if (pid < 0) {
+            throw new IllegalArgumentException(PID_PROPERTY + " must not be negative. Found " + value);
+        }
+        return pid;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.node;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lease on one of the node slots in a file shared by the JVMs on a host. UUID Sequence ('b')
+ * ids carry the leased slot in place of the process id, so co-located JVMs with the same process
+ * id (every container's PID 1) and the same MAC fragment still generate distinct ids, without a
+ * central coordinator.
+ *
+ * The file holds one 8 byte word per slot: a random owner tag in the high 16 bits and the time of
+ * the owner's last heartbeat in the low 48. A slot is free if its word is 0 or its heartbeat is
+ * older than the time to live. Slots are claimed and renewed with a compare-and-set on the
+ * memory-mapped word, which is atomic across processes, so no file lock is taken. A daemon
+ * thread renews the lease every third of the time to live and {@link #close()} frees the slot. The
+ * slot of a JVM that exits without closing its lease becomes free when the lease expires.
+ *
+ * If this JVM stalls for longer than the time to live another JVM may take the slot. The next
+ * heartbeat notices and {@link #isHeld()} becomes false; ids generated after that may collide with
+ * the new owner's, so choose a time to live well above the longest expected pause.
+ */
+public final class NodeLease implements AutoCloseable {
+
+    /** The default number of slots in a new lease file */
+    public static final int DEFAULT_SLOTS = 4096;
+
+    /** The default time a slot stays leased without a heartbeat */
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    /** "NOD1" in ASCII: the file format, stored above the slot count in the first word */
+    private static final long MAGIC = 0x4E4F4431L << 32;
+    private static final int HEADER = 64;
+
+    private static final long TIME_MASK = 0xFFFFFFFFFFFFL;
+    private static final int MAX_SLOTS = 65536;
+
+    private static final VarHandle WORDS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Clock clock;
+    private final long ttl;
+    private final int slot;
+    private final long tag;
+    private final Heartbeat heartbeat;
+    private long word;
+    private volatile boolean held = true;
+
+    private NodeLease(FileChannel channel, MappedByteBuffer buffer, Clock clock, long ttl, int slot,
+            long tag, long word, boolean heartbeat) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.slot = slot;
+        this.tag = tag;
+        this.word = word;
+        this.heartbeat = heartbeat ? new Heartbeat(this, ttl / 3) : null;
+        if (this.heartbeat != null) {
+            this.heartbeat.start();
+        }
+    }
+
+    /**
+     * Lease a slot in a file with {@value #DEFAULT_SLOTS} slots and a time to live of
+     * 30 seconds.
+     *
+     * @param file The lease file shared by the JVMs on this host. Created if it does not exist
+     * @return The lease
+     * @throws UncheckedIOException if the file cannot be opened
+     * @throws IllegalStateException if every slot is leased
+     */
+    public static NodeLease acquire(Path file) {
+        return acquire(file, DEFAULT_SLOTS, DEFAULT_TTL);
+    }
+
+    /**
+     * @param file The lease file shared by the JVMs on this host. Created if it does not exist
+     * @param slots The number of slots, at most 65,536. Only used when creating the file; an
+     *              existing file keeps its own slot count
+     * @param ttl How long a slot stays leased without a heartbeat
+     * @return The lease
+     * @throws UncheckedIOException if the file cannot be opened
+     * @throws IllegalStateException if every slot is leased
+     */
+    public static NodeLease acquire(Path file, int slots, Duration ttl) {
+        return acquire(file, slots, ttl, Clock.systemUTC(), true);
+    }
+
+    static NodeLease acquire(Path file, int slots, Duration ttl, Clock clock, boolean heartbeat) {
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("slots must be from 1 to " + MAX_SLOTS + ". Found " + slots);
+        }
+        if (ttl.toMillis() < 3) {
+            throw new IllegalArgumentException("ttl must be at least 3 ms. Found " + ttl);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(),
+                    HEADER + 8L * slots));
+            int n = header(buffer, slots, file);
+            if (HEADER + 8L * n > buffer.capacity()) {
+                // another JVM created the file with more slots but has not grown it yet
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + 8L * n);
+            }
+            long tag = tag();
+            long millis = ttl.toMillis();
+            int start = (int) (ProcessHandle.current().pid() % n);
+            for (int i = 0; i < n; i++) {
+                int candidate = (start + i) % n;
+                int offset = HEADER + 8 * candidate;
+                long now = clock.millis();
+                long old = (long) WORDS.getVolatile(buffer, offset);
+                if (old == 0 || now - (old & TIME_MASK) > millis) {
+                    long word = tag | (now & TIME_MASK);
+                    if (WORDS.compareAndSet(buffer, offset, old, word)) {
+                        return new NodeLease(channel, buffer, clock, millis, candidate, tag, word, heartbeat);
+                    }
+                }
+            }
+            throw new IllegalStateException("Every node slot in " + file + " is leased");
+        }
+        catch (IOException e) {
+            close(channel);
+            throw new UncheckedIOException(e);
+        }
+        catch (RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    /** Write the header of a new file, or check an existing one, and return its slot count */
+    private static int header(MappedByteBuffer buffer, int slots, Path file) {
+        // the first JVM to set the header word decides the slot count for everyone
+        WORDS.compareAndSet(buffer, 0, 0L, MAGIC | slots);
+        long header = (long) WORDS.getVolatile(buffer, 0);
+        int n = (int) header;
+        if ((header & ~0xFFFFFFFFL) != MAGIC || n < 1 || n > MAX_SLOTS) {
+            throw new IllegalStateException("Not a node lease file: " + file);
+        }
+        return n;
+    }
+
+    /** A random non-zero owner tag in the high 16 bits */
+    private static long tag() {
+        long tag = 0;
+        while (tag == 0) {
+            tag = new SecureRandom().nextLong() & ~TIME_MASK;
+        }
+        return tag;
+    }
+
+    /**
+     * @return The leased slot, from 0 to 65,535
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return false once another JVM has taken the slot after this lease expired, or after
+     *     {@link #close()}
+     */
+    public boolean isHeld() {
+        return held;
+    }
+
+    /**
+     * Renew the lease.
+     *
+     * @return true if the lease is still held
+     */
+    synchronized boolean heartbeat() {
+        if (!held) {
+            return false;
+        }
+        long next = tag | (clock.millis() & TIME_MASK);
+        if (WORDS.compareAndSet(buffer, HEADER + 8 * slot, word, next)) {
+            word = next;
+        }
+        else {
+            held = false;
+        }
+        return held;
+    }
+
+    /**
+     * Stop the heartbeat and free the slot.
+     */
+    @Override
+    public synchronized void close() {
+        if (heartbeat != null) {
+            heartbeat.running = false;
+            LockSupport.unpark(heartbeat);
+        }
+        if (held) {
+            WORDS.compareAndSet(buffer, HEADER + 8 * slot, word, 0L);
+            held = false;
+        }
+        close(channel);
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    private static final class Heartbeat extends Thread {
+
+        private final NodeLease lease;
+        private final long periodNanos;
+        private volatile boolean running = true;
+
+        Heartbeat(NodeLease lease, long periodMillis) {
+            super("uuid-node-lease");
+            setDaemon(true);
+            this.lease = lease;
+            this.periodNanos = periodMillis * 1_000_000L;
+        }
+
+        @Override
+        public void run() {
+            while (running && lease.heartbeat()) {
+                LockSupport.parkNanos(this, periodNanos);
+            }
+        }
+    }
+}
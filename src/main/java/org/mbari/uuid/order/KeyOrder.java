@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.order;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The orders databases and libraries use to sort UUID keys.
+ *
+ * Each order maps a UUID to a 128-bit key, {@link #keyHigh(long, long)} then
+ * {@link #keyLow(long, long)}, whose unsigned order is the order of the UUIDs. {@link KeySorter}
+ * radix sorts on those keys.
+ */
+public enum KeyOrder {
+
+    /**
+     * {@link java.util.UUID#compareTo(java.util.UUID)}: the most significant bits, then the least
+     * significant bits, each compared as a signed long.
+     */
+    SIGNED {
+        @Override
+        public int compare(long msb1, long lsb1, long msb2, long lsb2) {
+            int c = Long.compare(msb1, msb2);
+            return c != 0 ? c : Long.compare(lsb1, lsb2);
+        }
+
+        @Override
+        public long keyHigh(long msb, long lsb) {
+            return msb ^ Long.MIN_VALUE;
+        }
+
+        @Override
+        public long keyLow(long msb, long lsb) {
+            return lsb ^ Long.MIN_VALUE;
+        }
+
+        @Override
+        public long msb(long keyHigh, long keyLow) {
+            return keyHigh ^ Long.MIN_VALUE;
+        }
+
+        @Override
+        public long lsb(long keyHigh, long keyLow) {
+            return keyLow ^ Long.MIN_VALUE;
+        }
+    },
+
+    /**
+     * Byte by byte, left to right, as unsigned values. This is how PostgreSQL's uuid, binary(16)
+     * columns and lower case char(36) columns sort.
+     */
+    UNSIGNED {
+        @Override
+        public int compare(long msb1, long lsb1, long msb2, long lsb2) {
+            int c = Long.compareUnsigned(msb1, msb2);
+            return c != 0 ? c : Long.compareUnsigned(lsb1, lsb2);
+        }
+
+        @Override
+        public long keyHigh(long msb, long lsb) {
+            return msb;
+        }
+
+        @Override
+        public long keyLow(long msb, long lsb) {
+            return lsb;
+        }
+
+        @Override
+        public long msb(long keyHigh, long keyLow) {
+            return keyHigh;
+        }
+
+        @Override
+        public long lsb(long keyHigh, long keyLow) {
+            return keyLow;
+        }
+    },
+
+    /**
+     * SQL Server's uniqueidentifier order. Bytes 10 to 15 (the last group of the string form) are
+     * the most significant and are compared left to right, then bytes 8 and 9, then 7 and 6, 5 and
+     * 4, and finally 3, 2, 1 and 0. This is the order of .NET's {@code SqlGuid} applied to the
+     * byte layout SQL Server stores, where the first three groups are little-endian.
+     */
+    SQL_SERVER {
+        @Override
+        public int compare(long msb1, long lsb1, long msb2, long lsb2) {
+            int c = Long.compareUnsigned(Long.rotateLeft(lsb1, 16), Long.rotateLeft(lsb2, 16));
+            return c != 0 ? c : Long.compareUnsigned(Long.reverseBytes(msb1), Long.reverseBytes(msb2));
+        }
+
+        @Override
+        public long keyHigh(long msb, long lsb) {
+            return Long.rotateLeft(lsb, 16);
+        }
+
+        @Override
+        public long keyLow(long msb, long lsb) {
+            return Long.reverseBytes(msb);
+        }
+
+        @Override
+        public long msb(long keyHigh, long keyLow) {
+            return Long.reverseBytes(keyLow);
+        }
+
+        @Override
+        public long lsb(long keyHigh, long keyLow) {
+            return Long.rotateRight(keyHigh, 16);
+        }
+    };
+
+    private final Comparator<UUID> comparator = (a, b) -> compare(a.getMostSignificantBits(),
+            a.getLeastSignificantBits(), b.getMostSignificantBits(), b.getLeastSignificantBits());
+
+    /**
+     * Compare two UUIDs given as raw longs.
+     *
+     * @param msb1 The most significant bits of the first UUID
+     * @param lsb1 The least significant bits of the first UUID
+     * @param msb2 The most significant bits of the second UUID
+     * @param lsb2 The least significant bits of the second UUID
+     * @return A negative number, zero or a positive number if the first UUID sorts before, equal
+     *     to or after the second
+     */
+    public abstract int compare(long msb1, long lsb1, long msb2, long lsb2);
+
+    /**
+     * @return A comparator for {@link UUID}s in this order. It does not allocate.
+     */
+    public Comparator<UUID> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The high 64 bits of the sort key, compared unsigned
+     */
+    public abstract long keyHigh(long msb, long lsb);
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The low 64 bits of the sort key, compared unsigned
+     */
+    public abstract long keyLow(long msb, long lsb);
+
+    /**
+     * Inverse of the key mapping.
+     *
+     * @param keyHigh The high 64 bits of a sort key
+     * @param keyLow The low 64 bits of a sort key
+     * @return The most significant bits of the UUID with that key
+     */
+    public abstract long msb(long keyHigh, long keyLow);
+
+    /**
+     * Inverse of the key mapping.
+     *
+     * @param keyHigh The high 64 bits of a sort key
+     * @param keyLow The low 64 bits of a sort key
+     * @return The least significant bits of the UUID with that key
+     */
+    public abstract long lsb(long keyHigh, long keyLow);
+}
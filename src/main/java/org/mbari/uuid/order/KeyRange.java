@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.order;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.mbari.uuid.Layout;
+
+/**
+ * The smallest and largest keys a time-ordered UUID layout can have within a time range, in a
+ * given {@link KeyOrder}. Every UUID of that layout created in the range sorts between
+ * {@link #getLower()} and {@link #getUpper()} inclusive, so "rows created in the last hour"
+ * becomes a primary key range scan:
+ *
+ * <pre>
+ * KeyRange range = KeyRange.of(Layout.UUID7, KeyOrder.UNSIGNED, now.minus(1, HOURS), now);
+ * // SELECT * FROM t WHERE id BETWEEN :lower AND :upper
+ * </pre>
+ *
+ * A range only exists when the timestamp is the most significant part of the key in that order:
+ * <ul>
+ *     <li>{@link Layout#UUID7} and {@link Layout#UUID6}: {@link KeyOrder#SIGNED} and
+ *     {@link KeyOrder#UNSIGNED}.</li>
+ *     <li>{@link Layout#SEQUENCE}: {@link KeyOrder#SQL_SERVER}, where the timestamp in the last 6
+ *     bytes is compared first.</li>
+ * </ul>
+ * Version 1 UUIDs lead with the low bits of the timestamp and COMBs store the version 6 timestamp
+ * byte-reversed, so neither is contiguous by time in any of these orders.
+ */
+public final class KeyRange {
+
+    /** 100 ns intervals between 1582-10-15 and 1970-01-01 */
+    private static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+
+    private final Layout layout;
+    private final KeyOrder order;
+    private final UUID lower;
+    private final UUID upper;
+
+    private KeyRange(Layout layout, KeyOrder order, UUID lower, UUID upper) {
+        this.layout = layout;
+        this.order = order;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * @param layout The layout of the keys
+     * @param order The order the database sorts keys in
+     * @return true if keys of the layout are contiguous by time in that order
+     */
+    public static boolean supports(Layout layout, KeyOrder order) {
+        switch (layout) {
+            case UUID6:
+            case UUID7:
+                return order != KeyOrder.SQL_SERVER;
+            case SEQUENCE:
+                return order == KeyOrder.SQL_SERVER;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param layout The layout of the keys
+     * @param order The order the database sorts keys in
+     * @param from The start of the time range, inclusive
+     * @param to The end of the time range, exclusive
+     * @return The key bounds for UUIDs created in [from, to)
+     * @throws IllegalArgumentException if the layout is not contiguous by time in that order, or
+     *     the range is empty
+     */
+    public static KeyRange of(Layout layout, KeyOrder order, Instant from, Instant to) {
+        if (!supports(layout, order)) {
+            throw new IllegalArgumentException(layout + " keys are not ordered by time in " + order + " order");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Empty time range: " + from + " to " + to);
+        }
+        long first = from.toEpochMilli();
+        // the last millisecond that starts before 'to'
+        long last = to.getNano() % 1_000_000 == 0 ? to.toEpochMilli() - 1 : to.toEpochMilli();
+
+        long minLong = order == KeyOrder.SIGNED ? Long.MIN_VALUE : 0L;
+        long maxLong = order == KeyOrder.SIGNED ? Long.MAX_VALUE : -1L;
+        switch (layout) {
+            case UUID7:
+                return new KeyRange(layout, order,
+                        new UUID(first << 16, minLong),
+                        new UUID((last << 16) | 0xFFFFL, maxLong));
+            case UUID6: {
+                long firstTicks = ticks(from);
+                long lastTicks = ticks(to) - 1;
+                return new KeyRange(layout, order,
+                        new UUID(uuid6Msb(firstTicks), minLong),
+                        new UUID(uuid6Msb(lastTicks), maxLong));
+            }
+            default:
+                // SEQUENCE in SQL_SERVER order: timestamp in bytes 10-15, then bytes 8-9, then the rest
+                return new KeyRange(layout, order,
+                        new UUID(0L, first & 0xFFFFFFFFFFFFL),
+                        new UUID(-1L, 0xFFFF000000000000L | (last & 0xFFFFFFFFFFFFL)));
+        }
+    }
+
+    /** @return The number of 100 ns intervals since 1582-10-15, rounded up */
+    private static long ticks(Instant instant) {
+        long ticks = instant.getEpochSecond() * 10_000_000L + (instant.getNano() + 99) / 100;
+        return ticks + GREGORIAN_OFFSET;
+    }
+
+    private static long uuid6Msb(long ticks) {
+        return ((ticks << 4) & 0xFFFFFFFFFFFF0000L) | 0x6000L | (ticks & 0x0FFFL);
+    }
+
+    /**
+     * @return The layout the bounds are for
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return The order the bounds are valid in
+     */
+    public KeyOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The smallest key in the range
+     */
+    public UUID getLower() {
+        return lower;
+    }
+
+    /**
+     * @return The largest key in the range
+     */
+    public UUID getUpper() {
+        return upper;
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @return true if the key sorts between the bounds, inclusive
+     */
+    public boolean contains(long msb, long lsb) {
+        return order.compare(lower.getMostSignificantBits(), lower.getLeastSignificantBits(), msb, lsb) <= 0
+                && order.compare(msb, lsb, upper.getMostSignificantBits(), upper.getLeastSignificantBits()) <= 0;
+    }
+
+    /**
+     * @param uuid A key
+     * @return true if the key sorts between the bounds, inclusive
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public String toString() {
+        return "KeyRange{" + layout + ", " + order + ", " + lower + " .. " + upper + '}';
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.order;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Sorts batches of UUIDs held as parallel msb/lsb arrays in a {@link KeyOrder}, for example to
+ * pre-sort a batch in SQL Server order before a bulk insert into a clustered index.
+ *
+ * Large batches use a least-significant-digit radix sort over the 128-bit key of the order, one
+ * byte per pass. Passes where every key has the same byte, which is common for time-ordered ids,
+ * are skipped. Small batches use an insertion sort. The scratch arrays are kept between calls, so
+ * a sorter is not thread-safe; use one per thread.
+ */
+public final class KeySorter {
+
+    /** Below this size an insertion sort beats the fixed cost of the radix passes */
+    private static final int INSERTION_SORT_THRESHOLD = 48;
+
+    private final KeyOrder order;
+    private final int[] counts = new int[16 * 256];
+    private long[] scratchHigh = new long[0];
+    private long[] scratchLow = new long[0];
+
+    /**
+     * @param order The order to sort in
+     */
+    public KeySorter(KeyOrder order) {
+        this.order = Objects.requireNonNull(order);
+    }
+
+    /**
+     * Sort a batch once. Use an instance to reuse the scratch space across batches.
+     *
+     * @param order The order to sort in
+     * @param msb The most significant bits of the UUIDs
+     * @param lsb The least significant bits of the UUIDs
+     */
+    public static void sort(KeyOrder order, long[] msb, long[] lsb) {
+        new KeySorter(order).sort(msb, lsb);
+    }
+
+    /**
+     * @return The order this sorter sorts in
+     */
+    public KeyOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * @param msb The most significant bits of the UUIDs
+     * @param lsb The least significant bits of the UUIDs, the same length as msb
+     */
+    public void sort(long[] msb, long[] lsb) {
+        if (msb.length != lsb.length) {
+            throw new IllegalArgumentException("msb and lsb must be the same length. Found " +
+                    msb.length + " and " + lsb.length);
+        }
+        sort(msb, lsb, 0, msb.length);
+    }
+
+    /**
+     * @param msb The most significant bits of the UUIDs
+     * @param lsb The least significant bits of the UUIDs
+     * @param offset The index of the first UUID to sort
+     * @param length The number of UUIDs to sort
+     */
+    public void sort(long[] msb, long[] lsb, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, msb.length);
+        Objects.checkFromIndexSize(offset, length, lsb.length);
+        if (length < 2) {
+            return;
+        }
+        if (length <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(msb, lsb, offset, offset + length);
+            return;
+        }
+        if (scratchHigh.length < length) {
+            scratchHigh = new long[length];
+            scratchLow = new long[length];
+        }
+
+        // Replace the UUIDs with their keys in place and count every byte of every key in one pass
+        Arrays.fill(counts, 0);
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            long high = order.keyHigh(msb[i], lsb[i]);
+            long low = order.keyLow(msb[i], lsb[i]);
+            msb[i] = high;
+            lsb[i] = low;
+            for (int d = 0; d < 8; d++) {
+                counts[(d << 8) | (int) ((low >>> (d << 3)) & 0xFF)]++;
+                counts[((d + 8) << 8) | (int) ((high >>> (d << 3)) & 0xFF)]++;
+            }
+        }
+
+        long[] srcHigh = msb;
+        long[] srcLow = lsb;
+        int srcOffset = offset;
+        long[] dstHigh = scratchHigh;
+        long[] dstLow = scratchLow;
+        int dstOffset = 0;
+        for (int pass = 0; pass < 16; pass++) {
+            int base = pass << 8;
+            int shift = (pass & 7) << 3;
+            long[] digits = pass < 8 ? srcLow : srcHigh;
+            if (counts[base | (int) ((digits[srcOffset] >>> shift) & 0xFF)] == length) {
+                continue;
+            }
+            int sum = dstOffset;
+            for (int b = base; b < base + 256; b++) {
+                int c = counts[b];
+                counts[b] = sum;
+                sum += c;
+            }
+            for (int i = srcOffset; i < srcOffset + length; i++) {
+                int position = counts[base | (int) ((digits[i] >>> shift) & 0xFF)]++;
+                dstHigh[position] = srcHigh[i];
+                dstLow[position] = srcLow[i];
+            }
+            long[] t = srcHigh;
+            srcHigh = dstHigh;
+            dstHigh = t;
+            t = srcLow;
+            srcLow = dstLow;
+            dstLow = t;
+            int o = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = o;
+        }
+        if (srcHigh != msb) {
+            System.arraycopy(srcHigh, srcOffset, msb, offset, length);
+            System.arraycopy(srcLow, srcOffset, lsb, offset, length);
+        }
+
+        for (int i = offset; i < end; i++) {
+            long high = msb[i];
+            long low = lsb[i];
+            msb[i] = order.msb(high, low);
+            lsb[i] = order.lsb(high, low);
+        }
+    }
+
+    private void insertionSort(long[] msb, long[] lsb, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long m = msb[i];
+            long l = lsb[i];
+            int j = i - 1;
+            while (j >= from && order.compare(msb[j], lsb[j], m, l) > 0) {
+                msb[j + 1] = msb[j];
+                lsb[j + 1] = lsb[j];
+                j--;
+            }
+            msb[j + 1] = m;
+            lsb[j + 1] = l;
+        }
+    }
+}
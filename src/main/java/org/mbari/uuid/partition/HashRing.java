@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.partition;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A consistent-hash ring. Each token is owned by a partition, and a hash routes to the owner of
+ * the first token at or after it, wrapping around from the largest token to the smallest. Tokens
+ * and hashes are compared as signed ints, so the arc owned by a token runs from just after the
+ * previous token up to and including the token itself.
+ */
+public final class HashRing implements HashRouter {
+
+    private final int[] tokens;
+    private final int[] owners;
+    private final int partitions;
+
+    /** For each partition, the first hash of every arc it owns */
+    private final int[][] arcStarts;
+
+    /** For each partition, the running total of the lengths of the arcs it owns */
+    private final long[][] arcEnds;
+
+    /**
+     * @param tokens The tokens on the ring, in any order. Must be distinct
+     * @param owners The partition that owns each token. Every partition from 0 to the largest
+     *               owner must own at least one token
+     */
+    public HashRing(int[] tokens, int[] owners) {
+        if (tokens.length == 0 || tokens.length != owners.length) {
+            throw new IllegalArgumentException("tokens and owners must be non-empty and the same length");
+        }
+        int n = tokens.length;
+        long[] pairs = new long[n];
+        int max = -1;
+        for (int i = 0; i < n; i++) {
+            if (owners[i] < 0) {
+                throw new IllegalArgumentException("owners must not be negative. Found " + owners[i]);
+            }
+            max = Math.max(max, owners[i]);
+            pairs[i] = ((long) tokens[i] << 32) | owners[i];
+        }
+        Arrays.sort(pairs);
+        this.tokens = new int[n];
+        this.owners = new int[n];
+        for (int i = 0; i < n; i++) {
+            this.tokens[i] = (int) (pairs[i] >> 32);
+            this.owners[i] = (int) pairs[i];
+            if (i > 0 && this.tokens[i] == this.tokens[i - 1]) {
+                throw new IllegalArgumentException("Duplicate token " + this.tokens[i]);
+            }
+        }
+        this.partitions = max + 1;
+
+        int[] arcs = new int[partitions];
+        for (int owner : this.owners) {
+            arcs[owner]++;
+        }
+        arcStarts = new int[partitions][];
+        arcEnds = new long[partitions][];
+        for (int p = 0; p < partitions; p++) {
+            if (arcs[p] == 0) {
+                throw new IllegalArgumentException("Partition " + p + " owns no tokens");
+            }
+            arcStarts[p] = new int[arcs[p]];
+            arcEnds[p] = new long[arcs[p]];
+            arcs[p] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int previous = this.tokens[(i + n - 1) % n];
+            long length = (this.tokens[i] - previous) & 0xFFFFFFFFL;
+            if (length == 0) {
+                length = 1L << 32;  // a single token owns the whole ring
+            }
+            int p = this.owners[i];
+            int k = arcs[p]++;
+            arcStarts[p][k] = previous + 1;
+            arcEnds[p][k] = (k == 0 ? 0 : arcEnds[p][k - 1]) + length;
+        }
+    }
+
+    /**
+     * A ring with randomly placed tokens, like a database that assigns virtual nodes randomly.
+     *
+     * @param partitions The number of partitions
+     * @param tokensPerPartition The number of tokens (virtual nodes) per partition
+     * @param seed The random seed
+     * @return A new ring
+     */
+    public static HashRing random(int partitions, int tokensPerPartition, long seed) {
+        int n = partitions * tokensPerPartition;
+        var random = new Random(seed);
+        int[] tokens = random.ints().distinct().limit(n).toArray();
+        int[] owners = new int[n];
+        for (int i = 0; i < n; i++) {
+            owners[i] = i % partitions;
+        }
+        return new HashRing(tokens, owners);
+    }
+
+    @Override
+    public int partitions() {
+        return partitions;
+    }
+
+    @Override
+    public int route(int hash) {
+        int i = Arrays.binarySearch(tokens, hash);
+        if (i < 0) {
+            i = -i - 1;
+            if (i == tokens.length) {
+                i = 0;
+            }
+        }
+        return owners[i];
+    }
+
+    @Override
+    public long capacity(int partition) {
+        long[] ends = arcEnds(partition);
+        return ends[ends.length - 1];
+    }
+
+    @Override
+    public int hash(int partition, long index) {
+        long[] ends = arcEnds(partition);
+        long offset = Math.floorMod(index, ends[ends.length - 1]);
+        int k = Arrays.binarySearch(ends, offset + 1);
+        if (k < 0) {
+            k = -k - 1;
+        }
+        long arcOffset = k == 0 ? offset : offset - ends[k - 1];
+        return arcStarts[partition][k] + (int) arcOffset;
+    }
+
+    private long[] arcEnds(int partition) {
+        if (partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("partition must be in [0, " + partitions + "). Found " + partition);
+        }
+        return arcEnds[partition];
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.partition;
+
+/**
+ * Maps a 32-bit key hash to a partition and, in reverse, enumerates the hashes that map to a
+ * partition.
+ */
+public interface HashRouter {
+
+    /**
+     * @return The number of partitions
+     */
+    int partitions();
+
+    /**
+     * @param hash A key hash
+     * @return The partition the hash routes to, 0 to partitions() - 1
+     */
+    int route(int hash);
+
+    /**
+     * @param partition A partition
+     * @return The number of distinct hashes that route to the partition
+     */
+    long capacity(int partition);
+
+    /**
+     * The index-th hash that routes to the partition. Indexes are taken modulo
+     * {@link #capacity(int)}, and distinct indexes below the capacity give distinct hashes.
+     *
+     * @param partition A partition
+     * @param index Any value
+     * @return A hash h with route(h) == partition
+     */
+    int hash(int partition, long index);
+}
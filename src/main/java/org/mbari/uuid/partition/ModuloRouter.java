@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.partition;
+
+/**
+ * Routes a hash to partition {@code hash mod partitions}, treating the hash as unsigned.
+ */
+public final class ModuloRouter implements HashRouter {
+
+    private final int partitions;
+
+    /**
+     * @param partitions The number of partitions
+     */
+    public ModuloRouter(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive. Found " + partitions);
+        }
+        this.partitions = partitions;
+    }
+
+    @Override
+    public int partitions() {
+        return partitions;
+    }
+
+    @Override
+    public int route(int hash) {
+        return Integer.remainderUnsigned(hash, partitions);
+    }
+
+    @Override
+    public long capacity(int partition) {
+        checkPartition(partition);
+        return ((1L << 32) - 1 - partition) / partitions + 1;
+    }
+
+    @Override
+    public int hash(int partition, long index) {
+        long j = Math.floorMod(index, capacity(partition));
+        return (int) (partition + j * partitions);
+    }
+
+    private void checkPartition(int partition) {
+        if (partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("partition must be in [0, " + partitions + "). Found " + partition);
+        }
+    }
+}
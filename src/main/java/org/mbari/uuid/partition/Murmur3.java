@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.partition;
+
+/**
+ * MurmurHash3 x86_32 over a prefix of the 16 bytes of a UUID, read in the UUID's big-endian byte
+ * order as little-endian 4 byte blocks (the same bytes and result as a byte[] based Murmur3).
+ *
+ * Every step of Murmur3 is a bijection on 32 bits, so given the rest of the key, any one block
+ * can be solved for the hash it must produce. {@link #solve(long, long, int, int, int, int)} does
+ * that in constant time; there is no search.
+ */
+public final class Murmur3 {
+
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+    private static final int N = 0xe6546b64;
+    private static final int F1 = 0x85ebca6b;
+    private static final int F2 = 0xc2b2ae35;
+
+    private static final int C1_INV = inverse(C1);
+    private static final int C2_INV = inverse(C2);
+    private static final int FIVE_INV = inverse(5);
+    private static final int F1_INV = inverse(F1);
+    private static final int F2_INV = inverse(F2);
+
+    private Murmur3() {
+        // static methods only
+    }
+
+    /** Multiplicative inverse modulo 2^32 of an odd number (Newton's iteration) */
+    private static int inverse(int x) {
+        int y = x;
+        for (int i = 0; i < 5; i++) {
+            y *= 2 - x * y;
+        }
+        return y;
+    }
+
+    /**
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param length The number of leading bytes to hash: 4, 8, 12 or 16
+     * @param seed The Murmur3 seed
+     * @return The hash
+     */
+    public static int hash(long msb, long lsb, int length, int seed) {
+        int blocks = blocks(length);
+        int h = seed;
+        for (int i = 0; i < blocks; i++) {
+            h = round(h, block(msb, lsb, i));
+        }
+        return fmix(h ^ length);
+    }
+
+    /**
+     * Find the value of one 4 byte block of the UUID that makes {@link #hash(long, long, int, int)}
+     * return the target. The other blocks are left as given.
+     *
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     * @param length The number of leading bytes hashed: 4, 8, 12 or 16
+     * @param seed The Murmur3 seed
+     * @param block The block to solve for, bytes 4 * block to 4 * block + 3. Must be hashed
+     * @param target The hash the UUID must have
+     * @return The bytes of the block as a big-endian int, e.g. the new top 32 bits of msb for
+     *     block 0
+     */
+    public static int solve(long msb, long lsb, int length, int seed, int block, int target) {
+        int blocks = blocks(length);
+        if (block < 0 || block >= blocks) {
+            throw new IllegalArgumentException("Block " + block + " is not in the first " + length + " bytes");
+        }
+        int before = seed;
+        for (int i = 0; i < block; i++) {
+            before = round(before, block(msb, lsb, i));
+        }
+        int after = unfmix(target) ^ length;
+        for (int i = blocks - 1; i > block; i--) {
+            after = Integer.rotateRight((after - N) * FIVE_INV, 13) ^ mixK(block(msb, lsb, i));
+        }
+        int k = Integer.rotateRight((after - N) * FIVE_INV, 13) ^ before;
+        k = Integer.rotateRight(k * C2_INV, 15) * C1_INV;
+        return Integer.reverseBytes(k);
+    }
+
+    private static int blocks(int length) {
+        if (length < 4 || length > 16 || (length & 3) != 0) {
+            throw new IllegalArgumentException("length must be 4, 8, 12 or 16. Found " + length);
+        }
+        return length >>> 2;
+    }
+
+    /** Block i, bytes 4i to 4i + 3 read little-endian */
+    private static int block(long msb, long lsb, int i) {
+        long half = i < 2 ? msb : lsb;
+        int bigEndian = (i & 1) == 0 ? (int) (half >>> 32) : (int) half;
+        return Integer.reverseBytes(bigEndian);
+    }
+
+    private static int mixK(int k) {
+        return Integer.rotateLeft(k * C1, 15) * C2;
+    }
+
+    private static int round(int h, int k) {
+        return Integer.rotateLeft(h ^ mixK(k), 13) * 5 + N;
+    }
+
+    private static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= F1;
+        h ^= h >>> 13;
+        h *= F2;
+        return h ^ (h >>> 16);
+    }
+
+    private static int unfmix(int h) {
+        h ^= h >>> 16;
+        h *= F2_INV;
+        h ^= (h >>> 13) ^ (h >>> 26);
+        h *= F1_INV;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.partition;
+
+import java.util.Objects;
+import java.util.UUID;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.sequence.CounterSequenceGenerator;
+import org.mbari.uuid.time.Version7Generator;
+
+/**
+ * Generates UUIDs that route to a chosen partition of a key-routed store, so a parent row and
+ * its children can be written to one node.
+ *
+ * The store is modelled as Murmur3 ({@link Murmur3}) over the leading bytes of the key, followed
+ * by a {@link HashRouter} such as {@link ModuloRouter} or a {@link HashRing}. Instead of drawing
+ * ids until one lands in the right partition, the generator picks a hash that routes to the
+ * partition and solves Murmur3 for the one 4 byte block of the UUID it is free to shape:
+ * <ul>
+ *     <li>{@link Layout#SEQUENCE}: the counter in bytes 0 to 3, the same field
+ *     {@link org.mbari.uuid.sequence.TimeSequenceGenerator} scatters by reversing nibbles. The
+ *     index of the hash is the counter of {@link CounterSequenceGenerator}, so partitioned ids
+ *     stay unique within a millisecond. The process id, MAC fragment and timestamp are unchanged,
+ *     but the version nibble is {@value #SEQUENCE_VERSION} instead of 'b': a solved block is
+ *     effectively random and could equal a counter value another 'b' generator hands out in the
+ *     same millisecond, so partitioned ids get a space of their own. Works with any hash
+ *     length.</li>
+ *     <li>{@link Layout#UUID7}: the last 4 random bytes. The timestamp and counter still order
+ *     and distinguish the ids, so the hash must cover all 16 bytes.</li>
+ * </ul>
+ */
+public class PartitionedGenerator {
+
+    /** The version character of partitioned sequence ids */
+    public static final char SEQUENCE_VERSION = 'c';
+
+    private final Layout layout;
+    private final HashRouter router;
+    private final int hashLength;
+    private final int seed;
+    private final Version7Generator version7;
+
+    private PartitionedGenerator(Layout layout, HashRouter router, int hashLength, int seed,
+            Version7Generator version7) {
+        this.layout = layout;
+        this.router = Objects.requireNonNull(router);
+        this.hashLength = hashLength;
+        this.seed = seed;
+        this.version7 = version7;
+        Murmur3.hash(0L, 0L, hashLength, seed);  // validates hashLength
+    }
+
+    /**
+     * A generator of 'b' layout UUIDs. The timestamp comes from
+     * {@link CounterSequenceGenerator#getClock()}.
+     *
+     * @param router Maps hashes to partitions
+     * @param hashLength The number of leading bytes the store hashes: 4, 8, 12 or 16
+     * @param seed The Murmur3 seed the store uses
+     * @return A new generator
+     */
+    public static PartitionedGenerator sequence(HashRouter router, int hashLength, int seed) {
+        return new PartitionedGenerator(Layout.SEQUENCE, router, hashLength, seed, null);
+    }
+
+    /**
+     * A generator of version 7 UUIDs. The store must hash all 16 bytes.
+     *
+     * @param router Maps hashes to partitions
+     * @param seed The Murmur3 seed the store uses
+     * @param generator The source of the timestamp, counter and random bits
+     * @return A new generator
+     */
+    public static PartitionedGenerator version7(HashRouter router, int seed, Version7Generator generator) {
+        return new PartitionedGenerator(Layout.UUID7, router, 16, seed, Objects.requireNonNull(generator));
+    }
+
+    /**
+     * @return The layout of the UUIDs generated
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return The router used to map hashes to partitions
+     */
+    public HashRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * @param msb The most significant bits of a key
+     * @param lsb The least significant bits of a key
+     * @return The partition the store routes the key to
+     */
+    public int partition(long msb, long lsb) {
+        return router.route(Murmur3.hash(msb, lsb, hashLength, seed));
+    }
+
+    /**
+     * @param uuid A key
+     * @return The partition the store routes the key to
+     */
+    public int partition(UUID uuid) {
+        return partition(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * @param partition The partition the UUID must route to
+     * @return A new UUID in that partition
+     */
+    public UUID nextUuid(int partition) {
+        long[] bits = new long[2];
+        nextUuid(partition, bits, 0);
+        return new UUID(bits[0], bits[1]);
+    }
+
+    /**
+     * Generate a UUID in a partition without allocating a {@link UUID}.
+     *
+     * @param partition The partition the UUID must route to
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void nextUuid(int partition, long[] dest, int offset) {
+        if (layout == Layout.SEQUENCE) {
+            CounterSequenceGenerator.nextUuid(dest, offset);
+            long msb = (dest[offset] & ~0xF000L) | ((long) Character.digit(SEQUENCE_VERSION, 16) << 12);
+            long lsb = dest[offset + 1];
+            int target = router.hash(partition, msb >>> 32);
+            int block = Murmur3.solve(msb, lsb, hashLength, seed, 0, target);
+            dest[offset] = ((long) block << 32) | (msb & 0xFFFFFFFFL);
+        }
+        else {
+            version7.generate(dest, offset);
+            long msb = dest[offset];
+            long lsb = dest[offset + 1];
+            int target = router.hash(partition, lsb & 0xFFFFFFFFL);
+            int block = Murmur3.solve(msb, lsb, hashLength, seed, 3, target);
+            dest[offset + 1] = (lsb & 0xFFFFFFFF00000000L) | (block & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free multi-producer multi-consumer queue of (msb, lsb) pairs, after Dmitry
+ * Vyukov's bounded MPMC queue. Each slot has a sequence number that tells producers and consumers
+ * whose turn it is, so an offer or a claim is one compare-and-set on the tail or head.
+ *
+ * A consumer {@link #claim()}s a slot, reads it with {@link #msb(long)} and {@link #lsb(long)},
+ * then {@link #release(long)}s it. The slot cannot be reused in between.
+ */
+final class LongPairRing {
+
+    private final int mask;
+    private final long[] msb;
+    private final long[] lsb;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity The number of pairs held. Rounded up to a power of two
+     */
+    LongPairRing(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2. Found " + capacity);
+        }
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = n - 1;
+        this.msb = new long[n];
+        this.lsb = new long[n];
+        this.sequence = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return An estimate of the number of pairs in the ring
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(long m, long l) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequence.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    msb[index] = m;
+                    lsb[index] = l;
+                    sequence.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (difference < 0) {
+                return false;
+            }
+            else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return The position of the claimed slot, or -1 if the ring is empty
+     */
+    long claim() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequence.getAcquire(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = head.get();
+            }
+            else if (difference < 0) {
+                return -1;
+            }
+            else {
+                position = head.get();
+            }
+        }
+    }
+
+    long msb(long position) {
+        return msb[(int) position & mask];
+    }
+
+    long lsb(long position) {
+        return lsb[(int) position & mask];
+    }
+
+    /**
+     * Hand a claimed slot back to the producers.
+     */
+    void release(long position) {
+        sequence.setRelease((int) position & mask, position + mask + 1);
+    }
+}
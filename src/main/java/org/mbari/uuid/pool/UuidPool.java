@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.pool;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * Keeps a ring of pre-generated UUIDs so request threads only pay for a dequeue. A background
+ * producer tops the ring up in batches whenever it falls below a low watermark, which moves slow
+ * calls (a {@code SecureRandom} refill, a clock tick wait) off the caller's path. If the ring
+ * runs dry the caller generates inline, so {@link #next()} never blocks.
+ *
+ * The ids are stored as primitive longs. The producer can run on a platform thread (the default,
+ * a daemon named "uuid-pool-producer") or on any thread a {@link ThreadFactory} makes, for example
+ * {@code Thread.ofVirtual().factory()} on JDK 21.
+ *
+ * <pre>
+ * UuidPool pool = new UuidPool(UuidFlavor.UUID4);
+ * UUID id = pool.next();
+ * // ...
+ * pool.close(); // stops the producer
+ * </pre>
+ *
+ * Pooled ids are generated a little before they are handed out. For time-based flavors this
+ * means timestamps lag by up to the time it takes to drain the ring, and ids taken by different
+ * threads, or generated inline when the ring is empty, are not strictly in generation order.
+ */
+public class UuidPool implements AutoCloseable {
+
+    /** The default number of ids held */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final UuidFlavor flavor;
+    private final LongPairRing ring;
+    private final int lowWatermark;
+    private final int refillBatch;
+    private final Thread producer;
+    private volatile boolean running = true;
+    private volatile boolean producerWaiting;
+
+    /**
+     * A pool of {@value #DEFAULT_CAPACITY} ids, refilled in batches of a quarter of that when it
+     * drops below half full.
+     *
+     * @param flavor The kind of UUID to pre-generate
+     */
+    public UuidPool(UuidFlavor flavor) {
+        this(flavor, DEFAULT_CAPACITY, DEFAULT_CAPACITY / 2, DEFAULT_CAPACITY / 4, r -> {
+            var thread = new Thread(r, "uuid-pool-producer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param flavor The kind of UUID to pre-generate
+     * @param capacity The number of ids held. Rounded up to a power of two
+     * @param lowWatermark The producer refills when fewer ids than this remain
+     * @param refillBatch The number of ids the producer generates with one
+     *                    {@link UuidFlavor#fill} call before it checks the watermark again
+     * @param threadFactory Creates the producer thread
+     */
+    public UuidPool(UuidFlavor flavor, int capacity, int lowWatermark, int refillBatch,
+            ThreadFactory threadFactory) {
+        this.flavor = Objects.requireNonNull(flavor);
+        this.ring = new LongPairRing(capacity);
+        if (lowWatermark < 1 || lowWatermark > ring.capacity()) {
+            throw new IllegalArgumentException("lowWatermark must be in [1, capacity]. Found " + lowWatermark);
+        }
+        if (refillBatch < 1) {
+            throw new IllegalArgumentException("refillBatch must be positive. Found " + refillBatch);
+        }
+        this.lowWatermark = lowWatermark;
+        this.refillBatch = refillBatch;
+        this.producer = threadFactory.newThread(this::produce);
+        producer.start();
+    }
+
+    /**
+     * @return The kind of UUID this pool hands out
+     */
+    public UuidFlavor getFlavor() {
+        return flavor;
+    }
+
+    /**
+     * @return An estimate of the number of ids waiting in the pool
+     */
+    public int size() {
+        return ring.size();
+    }
+
+    /**
+     * @return A pooled id, or a freshly generated one if the pool is empty
+     */
+    public UUID next() {
+        long position = ring.claim();
+        if (position < 0) {
+            return flavor.generate();
+        }
+        var uuid = new UUID(ring.msb(position), ring.lsb(position));
+        ring.release(position);
+        wakeProducer();
+        return uuid;
+    }
+
+    /**
+     * Take an id without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void next(long[] dest, int offset) {
+        long position = ring.claim();
+        if (position < 0) {
+            flavor.generate(dest, offset);
+            return;
+        }
+        dest[offset] = ring.msb(position);
+        dest[offset + 1] = ring.lsb(position);
+        ring.release(position);
+        wakeProducer();
+    }
+
+    private void wakeProducer() {
+        if (producerWaiting && ring.size() < lowWatermark) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Each refill generates at most refillBatch ids with one {@link UuidFlavor#fill} call, sized to
+     * the free space in the ring. Ids the ring turns away (a consumer has claimed but not yet
+     * released the slot) are kept and offered first on the next pass rather than dropped.
+     */
+    private void produce() {
+        long[] msb = new long[refillBatch];
+        long[] lsb = new long[refillBatch];
+        int next = 0;
+        int end = 0;
+        while (running) {
+            if (ring.size() >= lowWatermark) {
+                producerWaiting = true;
+                // re-check after publishing that we are waiting, so a consumer cannot miss us
+                if (running && ring.size() >= lowWatermark) {
+                    LockSupport.park(this);
+                }
+                producerWaiting = false;
+                continue;
+            }
+            if (next == end) {
+                // at least 1, since the ring is below the low watermark
+                int n = Math.min(refillBatch, ring.capacity() - ring.size());
+                flavor.fill(msb, lsb, 0, n);
+                next = 0;
+                end = n;
+            }
+            while (next < end && ring.offer(msb[next], lsb[next])) {
+                next++;
+            }
+            if (next < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Stop the producer. Ids left in the pool are still handed out, after which callers generate
+     * inline.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+}
@@ -31,9 +31,11 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package org.mbari.uuid.sequence;
 
-import java.time.Instant;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Clock;
+import java.util.Objects;
+import org.mbari.uuid.UuidFlavor;
+import org.mbari.uuid.metrics.ClockWatch;
+import org.mbari.uuid.metrics.GeneratorMetrics;
 
 /**
  * This generates UUIDs in the following format:
@@ -64,42 +66,118 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class CounterSequenceGenerator {
 
-    private static final AtomicInteger COUNTER  = new AtomicInteger(new Random(System.nanoTime()).nextInt());
+    private static final SequenceCounter COUNTER = SequenceCounter.create(1, "counter-sequence");
+    private static volatile Clock clock = Clock.systemUTC();
+    private static volatile ClockWatch clockWatch = new ClockWatch();
 
+    /**
+     * @return The clock used to timestamp UUIDs
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Set the clock used to timestamp UUIDs. Only its {@link Clock#millis()} is used. The default
+     * is {@link Clock#systemUTC()}.
+     *
+     * @param clock The new clock
+     */
+    public static void setClock(Clock clock) {
+        CounterSequenceGenerator.clock = Objects.requireNonNull(clock);
+        // a different clock is not a regression of the old one
+        clockWatch = new ClockWatch();
+    }
+
+    /**
+     * @return The next UUID in the sequence
+     */
     public static java.util.UUID nextUuid() {
-        byte[] content = new byte[16];
-        long time = Instant.now().toEpochMilli();
-
-        int count = COUNTER.addAndGet(1);
-
-        // get the count in order and place into content
-        content[0] = (byte) (count >> 24);
-        content[1] = (byte) (count >> 16);
-        content[2] = (byte) (count >> 8);
-        content[3] = (byte) (count);
-        // copy pid to content
-        content[4]  = (byte) (Shared.PID >> 8);
-        content[5]  = (byte) (Shared.PID);
-
-        // place UUID version (hex 'b') in first four bits and piece of mac address in
-        // the second four bits
-        content[6]  = (byte) (Shared.VERSION_DEC | (0xF & Shared.MAC[2]));
-
-        // copy rest of mac address into content
-        content[7]  = Shared.MAC[3];
-        content[8]  = Shared.MAC[4];
-        content[9]  = Shared.MAC[5];
-
-        // copy timestamp into content
-        content[10] = (byte) (time >> 40);
-        content[11] = (byte) (time >> 32);
-        content[12] = (byte) (time >> 24);
-        content[13] = (byte) (time >> 16);
-        content[14] = (byte) (time >> 8);
-        content[15] = (byte) (time);
-
-        return new java.util.UUID(Shared.getMostSignificantBits(content),
-                Shared.getLeastSignificantBits(content));
+        long time = clock.millis();
+        int count = COUNTER.next();
+        record(time, count, 1);
+        return new java.util.UUID(Shared.mostSignificantBits(count), Shared.leastSignificantBits(time));
+    }
+
+    /**
+     * Generate the next UUID in the sequence without allocating a {@link java.util.UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public static void nextUuid(long[] dest, int offset) {
+        long time = clock.millis();
+        int count = COUNTER.next();
+        record(time, count, 1);
+        dest[offset] = Shared.mostSignificantBits(count);
+        dest[offset + 1] = Shared.leastSignificantBits(time);
+    }
+
+    /**
+     * Generate a batch of UUIDs. The counter block for the whole batch is claimed with a single
+     * atomic add and the clock is read once, so every UUID in the batch shares a timestamp.
+     *
+     * @param n The number of UUIDs to generate
+     * @return n UUIDs in counter order
+     */
+    public static java.util.UUID[] nextUuids(int n) {
+        long[] msb = new long[n];
+        long[] lsb = new long[n];
+        fill(msb, lsb);
+        var uuids = new java.util.UUID[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = new java.util.UUID(msb[i], lsb[i]);
+        }
+        return uuids;
+    }
+
+    /**
+     * Fill the arrays with a batch of UUIDs. The most significant bits of the i-th UUID are
+     * written to msb[i] and the least significant bits to lsb[i].
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits. Must be the same length as msb
+     */
+    public static void fill(long[] msb, long[] lsb) {
+        if (msb.length != lsb.length) {
+            throw new IllegalArgumentException("msb and lsb must be the same length");
+        }
+        fill(msb, lsb, 0, msb.length);
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of UUIDs.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public static void fill(long[] msb, long[] lsb, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long time = clock.millis();
+        long lo = Shared.leastSignificantBits(time);
+        int stride = COUNTER.stride();
+        int last = COUNTER.reserve(length);
+        record(time, last, length);
+        int count = last - length * stride;
+        for (int i = offset; i < offset + length; i++) {
+            count += stride;
+            msb[i] = Shared.mostSignificantBits(count);
+            lsb[i] = lo;
+        }
+    }
 
+    private static void record(long time, int last, int n) {
+        if (GeneratorMetrics.enabled()) {
+            clockWatch.observe(clock, time);
+            GeneratorMetrics.generated(UuidFlavor.COUNTER, n);
+            if (COUNTER.wrapped(last, n)) {
+                GeneratorMetrics.counterWrap(UuidFlavor.COUNTER, COUNTER.lane(), time);
+            }
+        }
     }
-}
\ No newline at end of file
+}
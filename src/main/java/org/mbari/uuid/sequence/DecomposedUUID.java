@@ -32,37 +32,24 @@ package org.mbari.uuid.sequence;
 
 import java.time.Instant;
 import java.util.UUID;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.codec.TextCodec;
 
+/**
+ * Pulls the fields back out of a UUID. The instance methods wrap a {@link UUID}; the static
+ * methods work directly on the two longs of a UUID and return primitives, so they can be used to
+ * scan large numbers of keys without allocating.
+ */
 public class DecomposedUUID {
 
     private final UUID uuid;
-    private final byte[] content = new byte[16];
-    private static final char[] HEX =
-            {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
-
+    private final long hi;
+    private final long lo;
 
     public DecomposedUUID(UUID uuid) {
         this.uuid = uuid;
-        constructFromLongs(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
-    }
-
-    private void constructFromLongs(long hi, long lo) {
-        content[ 0] = (byte) (hi >> 56);
-        content[ 1] = (byte) (hi >> 48);
-        content[ 2] = (byte) (hi >> 40);
-        content[ 3] = (byte) (hi >> 32);
-        content[ 4] = (byte) (hi >> 24);
-        content[ 5] = (byte) (hi >> 16);
-        content[ 6] = (byte) (hi >>  8);
-        content[ 7] = (byte) (hi      );
-        content[ 8] = (byte) (lo >> 56);
-        content[ 9] = (byte) (lo >> 48);
-        content[10] = (byte) (lo >> 40);
-        content[11] = (byte) (lo >> 32);
-        content[12] = (byte) (lo >> 24);
-        content[13] = (byte) (lo >> 16);
-        content[14] = (byte) (lo >>  8);
-        content[15] = (byte) (lo      );
+        this.hi = uuid.getMostSignificantBits();
+        this.lo = uuid.getLeastSignificantBits();
     }
 
     public UUID getUuid() {
@@ -75,18 +62,14 @@ public class DecomposedUUID {
      * @return Byte array of UUID fragment, or null for unrecognized format.
      */
     public byte[] getMacFragment() {
-        if (getVersion() != 'b')
+        long mac = macFragment(hi, lo);
+        if (mac < 0)
             return null;
 
         byte[] x = new byte[6];
-
-        x[0] = 0;
-        x[1] = 0;
-        x[2] = (byte) (content[6] & 0xF);
-        x[3] = content[7];
-        x[4] = content[8];
-        x[5] = content[9];
-
+        for (int i = 0; i < 6; i++) {
+            x[i] = (byte) (mac >>> (40 - 8 * i));
+        }
         return x;
     }
 
@@ -96,10 +79,7 @@ public class DecomposedUUID {
      * @return Id of process that generated the UUID, or -1 for unrecognized format.
      */
     public int getProcessId() {
-        if (getVersion() != Shared.VERSION)
-            return -1;
-
-        return ((content[4] & 0xFF) << 8) | (content[5] & 0xFF);
+        return processId(hi, lo);
     }
 
     /**
@@ -108,25 +88,79 @@ public class DecomposedUUID {
      * @return UUID version as a char.
      */
     public char getVersion() {
-        return HEX[(content[6] & 0xF0) >> 4];
+        return TextCodec.hexDigit(Layout.version(hi));
     }
 
     /**
-     * Extract timestamp from raw UUID bytes and return as int. If the UUID is not the default type, then we can't parse
-     * the timestamp out and null is returned.
+     * Extract timestamp from raw UUID bytes. Besides the default 'b' type this understands the version 1, 6 and 7
+     * UUIDs and COMBs generated by {@link org.mbari.uuid.UUIDs}. For other types the timestamp can't be parsed out and
+     * null is returned.
      * @return Millisecond UTC timestamp from generation of the UUID, or null for unrecognized format.
      */
     public Instant getTimestamp() {
-        if (getVersion() != Shared.VERSION)
-            return null;
+        long time = epochMillis(hi, lo);
+        return time == Layout.NO_TIMESTAMP ? null : Instant.ofEpochMilli(time);
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The layout of the UUID. See {@link Layout#of(long, long)}
+     */
+    public static Layout layout(long msb, long lsb) {
+        return Layout.of(msb, lsb);
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return Millisecond UTC timestamp from generation of the UUID, or {@link Layout#NO_TIMESTAMP} if the layout has
+     *     no timestamp.
+     */
+    public static long epochMillis(long msb, long lsb) {
+        return Layout.of(msb, lsb).epochMillis(msb, lsb);
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return Id of process that generated a 'b' or 'c' UUID, or -1 for other formats.
+     */
+    public static int processId(long msb, long lsb) {
+        if (Layout.of(msb, lsb) != Layout.SEQUENCE)
+            return -1;
+
+        return (int) (msb >>> 16) & 0xFFFF;
+    }
 
-        long time;
-        time  = ((long)content[10] & 0xFF) << 40;
-        time |= ((long)content[11] & 0xFF) << 32;
-        time |= ((long)content[12] & 0xFF) << 24;
-        time |= ((long)content[13] & 0xFF) << 16;
-        time |= ((long)content[14] & 0xFF) << 8;
-        time |= ((long)content[15] & 0xFF);
-        return Instant.ofEpochMilli(time);
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The 28 bits of MAC address in a 'b' or 'c' UUID as the low bits of a long, or -1 for other formats.
+     */
+    public static long macFragment(long msb, long lsb) {
+        if (Layout.of(msb, lsb) != Layout.SEQUENCE)
+            return -1;
+
+        return ((msb & 0x0FFFL) << 16) | (lsb >>> 48);
+    }
+
+    /**
+     * @param msb The most significant bits of a UUID
+     * @param lsb The least significant bits of a UUID
+     * @return The 48 bit node (MAC address) of a version 1 or 6 UUID, the 28 bit MAC fragment of a 'b' or 'c' UUID, or -1 for
+     *     other formats.
+     */
+    public static long node(long msb, long lsb) {
+        switch (Layout.version(msb)) {
+            case 0x1:
+            case 0x6:
+                return lsb & 0xFFFFFFFFFFFFL;
+            case 0xb:
+            case 0xc:
+                return macFragment(msb, lsb);
+            default:
+                return -1;
+        }
     }
-}
\ No newline at end of file
+}
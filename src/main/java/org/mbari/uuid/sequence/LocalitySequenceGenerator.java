@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.sequence;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mbari.uuid.metrics.ClockWatch;
+import org.mbari.uuid.metrics.GeneratorMetrics;
+
+/**
+ * An instance-based generator of the 'b' UUID format (see {@link TimeSequenceGenerator}) whose
+ * counter can be switched at runtime between two modes:
+ * <ul>
+ *     <li>{@link Mode#SCATTERED}: the counter steps by a large prime and its nibbles are
+ *     reversed, exactly as {@link TimeSequenceGenerator}, so consecutive ids spread evenly across
+ *     key ranges and shards.</li>
+ *     <li>{@link Mode#SEQUENTIAL}: the counter starts from a hash of the current UTC date and hour
+ *     ({@link #hourSeed(long)}) and steps by one, as {@link CounterSequenceGenerator}. Every
+ *     machine computes the same starting value for the same hour, so ids generated across a
+ *     cluster share a key prefix and writes land on the same shard. When the hour changes the
+ *     counter restarts from the new hour's seed.</li>
+ * </ul>
+ *
+ * All instances in a JVM share one sequential counter, so two sequential generators in the same
+ * process never hand out the same value and only separate machines converge on a prefix. Scattered
+ * mode draws from the counter of {@link TimeSequenceGenerator} itself, so scattered ids never
+ * repeat ids from other instances or from {@link TimeSequenceGenerator}. The sequential counter
+ * is not shared with {@link CounterSequenceGenerator}: both step by one through the same field, so
+ * a sequential id and a {@link CounterSequenceGenerator} id from the same process and millisecond
+ * can be equal. Do not mix the two in one store. In sequential mode the counter wraps after
+ * 2<sup>32</sup> ids in one hour. Instances are thread-safe.
+ */
+public class LocalitySequenceGenerator {
+
+    /** The counter modes */
+    public enum Mode {
+        /** Prime increment, nibbles reversed. Spreads writes */
+        SCATTERED,
+        /** Hour-seeded, increment by one. Concentrates writes */
+        SEQUENTIAL
+    }
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    /** (hour since epoch) &lt;&lt; 32 | (number of ids handed out in that hour), for the JVM */
+    private static final AtomicLong SEQUENTIAL = new AtomicLong();
+
+    private final Clock clock;
+    private final ClockWatch clockWatch = new ClockWatch();
+    private final AtomicLong sequential;
+    private volatile Mode mode;
+
+    /**
+     * A scattered generator using {@link Clock#systemUTC()}
+     */
+    public LocalitySequenceGenerator() {
+        this(Mode.SCATTERED, Clock.systemUTC());
+    }
+
+    /**
+     * @param mode The initial mode
+     * @param clock The clock used for timestamps and to pick the sequential seed. Only its
+     *              {@link Clock#millis()} is used
+     */
+    public LocalitySequenceGenerator(Mode mode, Clock clock) {
+        this(mode, clock, SEQUENTIAL);
+    }
+
+    LocalitySequenceGenerator(Mode mode, Clock clock, AtomicLong sequential) {
+        this.mode = Objects.requireNonNull(mode);
+        this.clock = Objects.requireNonNull(clock);
+        this.sequential = sequential;
+    }
+
+    /**
+     * The starting counter value for the UTC hour containing the given time. The same on every
+     * machine.
+     *
+     * @param epochMilli Milliseconds since 1970-01-01T00:00:00Z
+     * @return The seed for that hour
+     */
+    public static int hourSeed(long epochMilli) {
+        // SplitMix64 finalizer over the hour number
+        long z = Math.floorDiv(epochMilli, MILLIS_PER_HOUR) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) ((z ^ (z >>> 31)) >>> 32);
+    }
+
+    /**
+     * @return The current mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Switch modes. Ids generated after the switch use the new mode.
+     *
+     * @param mode The new mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = Objects.requireNonNull(mode);
+    }
+
+    /**
+     * @return The clock used to timestamp UUIDs
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return The next UUID
+     */
+    public UUID nextUuid() {
+        long time = clock.millis();
+        clockWatch.observe(clock, time);
+        return new UUID(msb(mode, reserve(mode, time, 1)), Shared.leastSignificantBits(time));
+    }
+
+    /**
+     * Generate the next UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void nextUuid(long[] dest, int offset) {
+        long time = clock.millis();
+        clockWatch.observe(clock, time);
+        Mode m = mode;
+        dest[offset] = msb(m, reserve(m, time, 1));
+        dest[offset + 1] = Shared.leastSignificantBits(time);
+    }
+
+    /**
+     * @param n The number of UUIDs to generate
+     * @return n UUIDs in counter order, sharing one timestamp and mode
+     */
+    public UUID[] nextUuids(int n) {
+        long[] msb = new long[n];
+        long[] lsb = new long[n];
+        fill(msb, lsb, 0, n);
+        var uuids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = new UUID(msb[i], lsb[i]);
+        }
+        return uuids;
+    }
+
+    /**
+     * Fill the arrays with a batch of UUIDs. The most significant bits of the i-th UUID are
+     * written to msb[i] and the least significant bits to lsb[i].
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits. Must be the same length as msb
+     */
+    public void fill(long[] msb, long[] lsb) {
+        if (msb.length != lsb.length) {
+            throw new IllegalArgumentException("msb and lsb must be the same length");
+        }
+        fill(msb, lsb, 0, msb.length);
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of UUIDs. The block of counter values is claimed
+     * with one atomic operation and the clock is read once.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public void fill(long[] msb, long[] lsb, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long time = clock.millis();
+        clockWatch.observe(clock, time);
+        long lo = Shared.leastSignificantBits(time);
+        Mode m = mode;
+        int stride = m == Mode.SCATTERED ? TimeSequenceGenerator.COUNTER.stride() : 1;
+        int count = reserve(m, time, length) - length * stride;
+        for (int i = offset; i < offset + length; i++) {
+            count += stride;
+            msb[i] = msb(m, count);
+            lsb[i] = lo;
+        }
+    }
+
+    private static long msb(Mode mode, int count) {
+        return Shared.mostSignificantBits(mode == Mode.SCATTERED
+                ? TimeSequenceGenerator.reverseNibbles(count)
+                : count);
+    }
+
+    /**
+     * @return The last counter value of a block of n
+     */
+    private int reserve(Mode mode, long time, int n) {
+        if (mode == Mode.SCATTERED) {
+            return TimeSequenceGenerator.COUNTER.reserve(n);
+        }
+        long hour = Math.floorDiv(time, MILLIS_PER_HOUR);
+        while (true) {
+            long current = sequential.get();
+            // a clock that steps back into an earlier hour keeps counting in the later one
+            long next = hour > (current >> 32) ? (hour << 32) + n : current + n;
+            if (sequential.compareAndSet(current, next)) {
+                return hourSeed((next >> 32) * MILLIS_PER_HOUR) + (int) next;
+            }
+            GeneratorMetrics.casRetry();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.sequence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mbari.uuid.metrics.GeneratorMetrics;
+
+/**
+ * The 32-bit counter behind the sequence generators. Conceptually the counter walks the sequence
+ * {@code seed + i * increment} for i = 1, 2, 3, ... and every value of i is handed out once.
+ *
+ * There are two implementations:
+ * <ul>
+ *     <li>{@link #single(int, int)}: one {@link AtomicInteger} shared by every thread.</li>
+ *     <li>{@link #striped(int, int, int)}: a power-of-two number of lanes, each on its own cache
+ *     line. Each lane hands out the values of i in its own residue class modulo lanes, so lanes
+ *     never overlap and threads mapped to different lanes never contend. Each lane covers
+ *     2<sup>32</sup> / lanes values before it wraps.</li>
+ * </ul>
+ *
+ * The generators pick their counter from the {@code org.mbari.uuid.sequence.lanes} system property.
+ * If it is unset or 1 a single counter is used. 0 uses one lane per available processor, any other
+ * value is rounded up to a power of two.
+ *
+ * A counter can also be {@link #persistent(Path, int, int) persistent}: it records a high-water
+ * mark in a memory-mapped file and a restarted process carries on after it rather than from a new
+ * random seed, so a restart with the same process id and a clock that stepped back cannot reissue
+ * ids. {@link TimeSequenceGenerator} and {@link CounterSequenceGenerator} use persistent counters
+ * when the {@code org.mbari.uuid.sequence.state} system property names a directory for their
+ * state files. A persistent counter is never striped.
+ */
+public abstract class SequenceCounter {
+
+    /** System property used to select the number of counter lanes */
+    public static final String LANES_PROPERTY = "org.mbari.uuid.sequence.lanes";
+
+    /** System property naming the directory that holds the generators' state files */
+    public static final String STATE_PROPERTY = "org.mbari.uuid.sequence.state";
+
+    /** System property setting how many values a persistent counter reserves per file write */
+    public static final String STATE_BLOCK_PROPERTY = "org.mbari.uuid.sequence.state.block";
+
+    /** The default number of values reserved per file write */
+    public static final int DEFAULT_STATE_BLOCK = 65536;
+
+    /**
+     * @return The next value of the counter
+     */
+    public abstract int next();
+
+    /**
+     * Claim a block of n consecutive values for the calling thread with a single atomic operation.
+     * The values in the block are {@code last - (n - 1) * stride(), ..., last - stride(), last}.
+     *
+     * @param n The number of values to claim
+     * @return The last value in the block
+     */
+    public abstract int reserve(int n);
+
+    /**
+     * @return The distance between consecutive values handed to one thread
+     */
+    public abstract int stride();
+
+    /**
+     * @return The number of lanes. 1 for a single counter
+     */
+    public abstract int lanes();
+
+    /**
+     * @return The lane the calling thread draws from, between 0 and {@link #lanes()} - 1
+     */
+    public abstract int lane();
+
+    /**
+     * Used for metrics. Must be called from the thread that reserved the block.
+     *
+     * @param last The value returned by {@link #reserve(int)} or {@link #next()}
+     * @param n The size of the block
+     * @return true if the block completed a full cycle of the counter (or of the caller's lane),
+     *     so the values that follow repeat earlier ones
+     */
+    public abstract boolean wrapped(int last, int n);
+
+    /**
+     * @param seed The starting value. The first value handed out is seed + increment
+     * @param increment The step between values
+     * @return A counter backed by one atomic integer
+     */
+    public static SequenceCounter single(int seed, int increment) {
+        return new Single(seed, increment);
+    }
+
+    /**
+     * @param seed The starting value.
+     * @param increment The step between values in the unstriped sequence
+     * @param lanes The number of lanes. Rounded up to a power of two
+     * @return A counter striped over the lanes
+     */
+    public static SequenceCounter striped(int seed, int increment, int lanes) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("lanes must be positive. Found " + lanes);
+        }
+        int n = Integer.highestOneBit(lanes);
+        if (n < lanes) {
+            n = n << 1;
+        }
+        return n == 1 ? new Single(seed, increment) : new Striped(seed, increment, n);
+    }
+
+    /**
+     * A counter that persists its progress. Values are reserved in blocks: the end of each block is
+     * written to the file before any value in it is handed out, so the file is written once per
+     * block rather than once per value. When the file already holds a high-water mark the counter
+     * continues after it, skipping at most one block of unused values. Otherwise it starts from a
+     * random seed.
+     *
+     * @param file The state file. Created if it does not exist. Held open and locked for the life
+     *             of the JVM
+     * @param increment The step between values
+     * @param block The number of values reserved per file write
+     * @return A counter backed by the file
+     * @throws UncheckedIOException if the file cannot be opened
+     * @throws IllegalStateException if another process holds the file
+     */
+    public static SequenceCounter persistent(Path file, int increment, int block) {
+        try {
+            return persistent(SequenceState.open(file), increment, block);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SequenceCounter persistent(SequenceState state, int increment, int block) {
+        if (block < 1) {
+            throw new IllegalArgumentException("block must be positive. Found " + block);
+        }
+        int seed = state.isFresh() ? new Random(System.nanoTime()).nextInt() : state.counter();
+        if (!state.isFresh() && state.timestamp() > System.currentTimeMillis()) {
+            // the clock is behind the last run of this process
+            GeneratorMetrics.clockRegression();
+        }
+        return new Persistent(state, seed, increment, block);
+    }
+
+    /**
+     * Create a randomly seeded counter using the lane count from the
+     * {@value #LANES_PROPERTY} system property.
+     *
+     * @param increment The step between values
+     * @return A new counter
+     */
+    static SequenceCounter create(int increment) {
+        int seed = new Random(System.nanoTime()).nextInt();
+        int lanes = intProperty(LANES_PROPERTY, 1);
+        if (lanes == 0) {
+            lanes = Runtime.getRuntime().availableProcessors();
+        }
+        return striped(seed, increment, lanes);
+    }
+
+    /**
+     * Create the counter for a generator. If the {@value #STATE_PROPERTY} system property is set
+     * the counter is persistent and its state file is {@code <name>-<pid>.state} in that
+     * directory, so a process restarted with the same process id picks up where it left off.
+     * Otherwise this is the same as {@link #create(int)}.
+     *
+     * @param increment The step between values
+     * @param name The name of the generator
+     * @return A new counter
+     */
+    static SequenceCounter create(int increment, String name) {
+        String dir = System.getProperty(STATE_PROPERTY);
+        if (dir == null || dir.isBlank()) {
+            return create(increment);
+        }
+        Path file = Path.of(dir.trim(), name + "-" + Shared.PID + ".state");
+        return persistent(file, increment, intProperty(STATE_BLOCK_PROPERTY, DEFAULT_STATE_BLOCK));
+    }
+
+    private static int intProperty(String property, int defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(property + " must be an integer. Found " + value);
+        }
+    }
+
+    /**
+     * The values handed out from one lane are {@code base + j * stride} for j = 0, 1, 2, ... and
+     * repeat after 2<sup>32 - tz</sup> values, where tz is the number of trailing zeros of stride.
+     */
+    private static final class Cycle {
+
+        private final int base;
+        private final int shift;
+        private final int inverse;
+        private final long mask;
+
+        Cycle(int base, int stride) {
+            this.base = base;
+            this.shift = Integer.numberOfTrailingZeros(stride);
+            int odd = stride >> shift;
+            int inverse = odd;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - odd * inverse;
+            }
+            this.inverse = inverse;
+            this.mask = shift == 32 ? 0L : (1L << (32 - shift)) - 1;
+        }
+
+        /** true if j + 1 for j = index of last crosses a multiple of the cycle length */
+        boolean wrapped(int last, int n) {
+            long j = Integer.toUnsignedLong(((last - base) >>> shift) * inverse) & mask;
+            return ((j + 1) & mask) < n;
+        }
+    }
+
+    private static final class Single extends SequenceCounter {
+
+        private final AtomicInteger counter;
+        private final int increment;
+        private final Cycle cycle;
+
+        Single(int seed, int increment) {
+            this.counter = new AtomicInteger(seed);
+            this.increment = increment;
+            this.cycle = new Cycle(seed + increment, increment);
+        }
+
+        @Override
+        public int next() {
+            return counter.addAndGet(increment);
+        }
+
+        @Override
+        public int reserve(int n) {
+            return counter.addAndGet(n * increment);
+        }
+
+        @Override
+        public int stride() {
+            return increment;
+        }
+
+        @Override
+        public int lanes() {
+            return 1;
+        }
+
+        @Override
+        public int lane() {
+            return 0;
+        }
+
+        @Override
+        public boolean wrapped(int last, int n) {
+            return cycle.wrapped(last, n);
+        }
+    }
+
+    /**
+     * Hands out the values seed + i * increment for i = 1, 2, 3, ... Values up to index limit have
+     * been written to the state file; a thread that claims past it extends the limit by a block
+     * and writes the new high-water mark before returning.
+     */
+    private static final class Persistent extends SequenceCounter {
+
+        private final SequenceState state;
+        private final int seed;
+        private final int increment;
+        private final int block;
+        private final Cycle cycle;
+        private final AtomicLong index = new AtomicLong();
+        private volatile long limit;
+
+        Persistent(SequenceState state, int seed, int increment, int block) {
+            this.state = state;
+            this.seed = seed;
+            this.increment = increment;
+            this.block = block;
+            this.cycle = new Cycle(seed + increment, increment);
+        }
+
+        private int claim(int n) {
+            long i = index.addAndGet(n);
+            if (i > limit) {
+                extend(i);
+            }
+            return seed + (int) i * increment;
+        }
+
+        private synchronized void extend(long i) {
+            if (i > limit) {
+                long next = i + block;
+                long now = Math.max(state.timestamp(), System.currentTimeMillis());
+                state.write(seed + (int) next * increment, now);
+                limit = next;
+            }
+        }
+
+        @Override
+        public int next() {
+            return claim(1);
+        }
+
+        @Override
+        public int reserve(int n) {
+            return claim(n);
+        }
+
+        @Override
+        public int stride() {
+            return increment;
+        }
+
+        @Override
+        public int lanes() {
+            return 1;
+        }
+
+        @Override
+        public int lane() {
+            return 0;
+        }
+
+        @Override
+        public boolean wrapped(int last, int n) {
+            return cycle.wrapped(last, n);
+        }
+    }
+
+    private static final class Striped extends SequenceCounter {
+
+        /** 32 ints = 128 bytes, so adjacent lanes never share a (prefetched pair of) cache lines */
+        private static final int PAD = 32;
+
+        private final AtomicIntegerArray cells;
+        private final int stride;
+        private final int mask;
+        private final Cycle[] cycles;
+
+        Striped(int seed, int increment, int lanes) {
+            this.cells = new AtomicIntegerArray((lanes + 1) * PAD);
+            this.stride = lanes * increment;
+            this.mask = lanes - 1;
+            this.cycles = new Cycle[lanes];
+            for (int k = 0; k < lanes; k++) {
+                // lane k starts one step behind its first value, seed + (k + 1) * increment
+                cells.set(index(k), seed + (k + 1) * increment - stride);
+                cycles[k] = new Cycle(seed + (k + 1) * increment, stride);
+            }
+        }
+
+        private static int index(int lane) {
+            return (lane + 1) * PAD;
+        }
+
+        @Override
+        public int lane() {
+            long id = Thread.currentThread().getId();
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        @Override
+        public int next() {
+            return cells.addAndGet(index(lane()), stride);
+        }
+
+        @Override
+        public int reserve(int n) {
+            return cells.addAndGet(index(lane()), n * stride);
+        }
+
+        @Override
+        public int stride() {
+            return stride;
+        }
+
+        @Override
+        public int lanes() {
+            return mask + 1;
+        }
+
+        @Override
+        public boolean wrapped(int last, int n) {
+            return cycles[lane()].wrapped(last, n);
+        }
+    }
+}
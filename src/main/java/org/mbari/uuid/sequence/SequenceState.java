@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.sequence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The persisted state of a sequence counter: a 24 byte memory-mapped file holding the counter's
+ * high-water mark (the last value it may have handed out) and the time that mark was written.
+ *
+ * Writes go to the mapped page, so they survive the JVM being killed without an fsync. They are
+ * not forced to disk until {@link #close()}, so a power failure can lose the most recent marks.
+ *
+ * The file is locked once when it is opened and stays locked while it is open, so two processes
+ * can never share a state file. Nothing is locked per write.
+ */
+final class SequenceState implements Closeable {
+
+    /** "UUID" in ASCII */
+    private static final int MAGIC = 0x55554944;
+    private static final int FORMAT = 1;
+    private static final int SIZE = 24;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_OFFSET = 4;
+    private static final int COUNTER_OFFSET = 8;
+    private static final int TIMESTAMP_OFFSET = 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final boolean fresh;
+
+    private SequenceState(Path file, FileChannel channel, FileLock lock, MappedByteBuffer buffer,
+            boolean fresh) {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.fresh = fresh;
+    }
+
+    /**
+     * Open a state file, creating it if it does not exist.
+     *
+     * @param file The state file
+     * @return The state
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalStateException if another process holds the file, or it is not a state file
+     */
+    static SequenceState open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            var lock = channel.tryLock();
+            if (lock == null) {
+                throw new IllegalStateException("Sequence state file is in use by another process: " + file);
+            }
+            boolean fresh = channel.size() == 0;
+            if (!fresh && channel.size() != SIZE) {
+                throw new IllegalStateException("Not a sequence state file: " + file);
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            if (fresh) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(FORMAT_OFFSET, FORMAT);
+            }
+            else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(FORMAT_OFFSET) != FORMAT) {
+                throw new IllegalStateException("Not a sequence state file: " + file);
+            }
+            return new SequenceState(file, channel, lock, buffer, fresh);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if the file was created by {@link #open(Path)}, so there is no earlier state
+     */
+    boolean isFresh() {
+        return fresh;
+    }
+
+    /**
+     * @return The counter's high-water mark
+     */
+    int counter() {
+        return buffer.getInt(COUNTER_OFFSET);
+    }
+
+    /**
+     * @return The time, in epoch milliseconds, the high-water mark was written
+     */
+    long timestamp() {
+        return buffer.getLong(TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * @param counter The new high-water mark
+     * @param timestamp The current time in epoch milliseconds
+     */
+    void write(int counter, long timestamp) {
+        buffer.putInt(COUNTER_OFFSET, counter);
+        buffer.putLong(TIMESTAMP_OFFSET, timestamp);
+    }
+
+    /**
+     * @return The state file
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Force the state to disk and release the file.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        lock.release();
+        channel.close();
+    }
+}
@@ -30,69 +30,33 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package org.mbari.uuid.sequence;
 
-import java.lang.management.ManagementFactory;
-import java.net.NetworkInterface;
-import java.util.Enumeration;
+import org.mbari.uuid.node.NodeIdentity;
 
 public class Shared {
 
-    public static final int PID = processId();
-    public static final byte[] MAC = macAddress();
-    private static final int MAX_PID = 65536;
+    /** The process id modulo 65,536, or the slot leased from a {@link org.mbari.uuid.node.NodeLease} */
+    public static final int PID = NodeIdentity.processSlot();
+    public static final byte[] MAC = NodeIdentity.nodeBytes();
     protected static final char VERSION = 'b';
     protected static final int VERSION_DEC = mapToByte(VERSION, '0');
 
     /**
-     * Get the process id of this JVM. I haven't tested this extensively so its possible that this performs differently
-     * on esoteric JVMs. I copied this from:
-     * http://stackoverflow.com/questions/35842/how-can-a-java-program-get-its-own-process-id
-     * @return Id of the current JVM process.
+     * The low 32 bits of the most significant bits are constant for this process: the PID, the
+     * version nibble and the first 12 bits of the MAC fragment (bytes 4 to 7 of the UUID).
      */
-    private static int processId() {
-        // Note: may fail in some JVM implementations
-        // something like '<pid>@<hostname>', at least in SUN / Oracle JVMs
-        final String jvmName = ManagementFactory.getRuntimeMXBean().getName();
-        final int index = jvmName.indexOf('@');
-
-        if (index < 1)
-            throw new RuntimeException("Could not get PID");
-
-        try {
-            return Integer.parseInt(jvmName.substring(0, index)) % MAX_PID;
-        } catch (NumberFormatException e) {
-            throw new RuntimeException("Could not get PID");
-        }
-    }
+    static final long MSB_NODE = ((PID & 0xFFFFL) << 16)
+            | ((VERSION_DEC & 0xF0L) << 8)
+            | ((MAC[2] & 0xFL) << 8)
+            | (MAC[3] & 0xFFL);
 
     /**
-     * Get the active MAC address on the current machine as a byte array. This is called when generating a new UUID.
-     * Note that a machine can have multiple or no active MAC addresses. This method works by iterating through the list
-     * of network interfaces, ignoring the loopback interface and any virtual interfaces (which often have made-up
-     * addresses), and returning the first one we find. If no valid addresses are found, then a byte array of the same
-     * length with all zeros is returned.
-     * @return 6-byte array for first active MAC address, or 6-byte zeroed array if no interfaces are active.
+     * The high 16 bits of the least significant bits are the last two bytes of the MAC fragment
+     * (bytes 8 and 9 of the UUID).
      */
-    private static byte[] macAddress() {
-        try {
-            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
-            byte[] mac = null;
-
-            while (interfaces.hasMoreElements() && (mac == null || mac.length != 6)) {
-                NetworkInterface netInterface = interfaces.nextElement();
-                if (netInterface.isLoopback() || netInterface.isVirtual())
-                    continue;
-                mac = netInterface.getHardwareAddress();
-            }
-
-            // if the machine is not connected to a network it has no active MAC address
-            if (mac == null)
-                mac = new byte[] {0, 0, 0, 0, 0, 0};
-
-            return mac;
-        } catch (Exception e) {
-            throw new RuntimeException("Could not get MAC address");
-        }
-    }
+    static final long LSB_NODE = ((MAC[4] & 0xFFL) << 56) | ((MAC[5] & 0xFFL) << 48);
+
+    /** Mask for the 48-bit millisecond timestamp in bytes 10 to 15 */
+    static final long TIMESTAMP_MASK = 0xFFFFFFFFFFFFL;
 
     /**
      * Map two hex characters to 4-bit numbers and combine them to produce 8-bit number in byte.
@@ -121,6 +85,25 @@ public class Shared {
         throw new RuntimeException("Error parsing UUID at character: " + x);
     }
 
+    /**
+     * Build the most significant bits from a counter value that has already been arranged into
+     * the order it should appear in the first 4 bytes of the UUID.
+     * @param count The counter bits for bytes 0 to 3.
+     * @return The first half of the UUID as a long.
+     */
+    static long mostSignificantBits(int count) {
+        return ((long) count << 32) | MSB_NODE;
+    }
+
+    /**
+     * Build the least significant bits from a millisecond timestamp.
+     * @param time UTC milliseconds since epoch.
+     * @return The second half of the UUID as a long.
+     */
+    static long leastSignificantBits(long time) {
+        return LSB_NODE | (time & TIMESTAMP_MASK);
+    }
+
     /**
      * Get the most significant bits (the first half) of the UUID content as a 64-bit long.
      * @return The first half of the UUID as a long.
@@ -19,6 +19,8 @@
  * <h2>NOTES</h2>
  * <div>This UUID version was designed to have easily readable PID, MAC address, and timestamp values, with a regularly incremented count. The motivations for this implementation are to reduce the chance of duplicate ids, store more useful information in UUIDs, and ensure that the first few characters vary for successively generated ids, which can be important for splitting ids over a cluster. The UUID generator is also designed to be be thread-safe without locking.</div>
  * <div>Uniqueness is supported by the millisecond precision timestamp, the MAC address of the generating machine, the 2 byte process id, and a 4 byte counter. Thus, a UUID is guaranteed to be unique in an id space if each machine allows 65,536 processes or less, does not share the last 28 bits of its MAC address with another machine in the id space, and generates fewer than 4,294,967,295 ids per millisecond in a process.</div>
+ * <div><b>Batches:</b> {@code fill} and {@code nextUuids} claim a block of consecutive counter values with one atomic add and read the clock once, so every id in a batch has the same timestamp. The ids in a batch count towards the per-millisecond limit above exactly as if they had been generated one at a time.</div>
+ * <div><b>Striped counters:</b> Setting the {@code org.mbari.uuid.sequence.lanes} system property splits the counter into lanes so that threads on many cores do not all update the same cache line. Each lane steps through its own residue class of the counter sequence, so lanes never hand out the same value; the limit above becomes 4,294,967,295 / lanes ids per millisecond per lane. See {@link org.mbari.uuid.sequence.SequenceCounter}.</div>
  * <div><b>Counter:</b> The counter value is reversed, such that the least significant 4-bit block is the first character of the UUID. This is useful because it makes the earlier bits of the UUID change more often. Note that the counter is not incremented by 1 each time, but rather by a large prime number, such that its incremental value is significantly different, but it takes many iterations to reach the same value.</div>
  * <div>Examples of sequentially generated ids in the default counter mod</div>
  * <pre>
@@ -32,7 +34,7 @@
  * f75cdbff-7a7f-bd53-7a50-013e4e2afbde
  * </pre>
  * <div>Note the high variability of the first few characters.</div>
- * <div>The counter can also be toggled into sequential mode to effectively reverse this logic. This is useful because it means you can control the locality of your data as you generate ids across a cluster. Sequential mode works by creating an initial value based on a hash of the current date and hour. This means it can be discovered independently on distributed machines. The value is then incremented by one for each id generated. If you use key-based sharding, data inserted with these ids should have some locality.</div>
+ * <div>The counter can also be toggled into sequential mode to effectively reverse this logic. This is useful because it means you can control the locality of your data as you generate ids across a cluster. Sequential mode works by creating an initial value based on a hash of the current date and hour. This means it can be discovered independently on distributed machines. The value is then incremented by one for each id generated. If you use key-based sharding, data inserted with these ids should have some locality. {@link org.mbari.uuid.sequence.LocalitySequenceGenerator} implements both modes and can be switched between them at runtime; the static {@link org.mbari.uuid.sequence.CounterSequenceGenerator} counts by one from a random seed.</div>
  * <div>Examples of sequentially generated ids in sequential counter mode:</div>
  * <pre>
  * f5166777-7a7f-bd53-7a50-013e4e2afc26
@@ -46,8 +48,8 @@
  * </pre>
  * <div>
  *     <ul>
- *         <li>PID: This value is just the current process id modulo 65,536. In my experience, most linux machines do not allow PID numbers to go this high, but OSX machines do.</li>
- *         <li>MAC Address: The last 28 bits of the first active MAC address found on the machine. If no active MAC address is found, this is filled in with zeroes.</li>
+ *         <li>PID: This value is just the current process id modulo 65,536. In my experience, most linux machines do not allow PID numbers to go this high, but OSX machines do. JVMs that share a host and a PID, such as containers that all run as PID 1, can instead lease distinct slots from a shared file; see {@link org.mbari.uuid.node.NodeLease}.</li>
+ *         <li>MAC Address: The last 28 bits of the node: the first active MAC address found on the machine, or a random multicast address if there is none. The node and the PID can both be set explicitly; see {@link org.mbari.uuid.node.NodeIdentity}.</li>
  *         <li>Timestamp: This is the UTC milliseconds since Unix epoch. To convert to a time manually first copy the last segment of the UUID, convert to decimal, then use a time library to count up from 1970-1-1 0:00:00.000 UTC.</li>
  *     </ul>
  * </div>
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.stream;
+
+/**
+ * Receives generated UUIDs as two longs, without allocating a {@link java.util.UUID}.
+ */
+@FunctionalInterface
+public interface UuidBitsConsumer {
+
+    /**
+     * @param index The position of the UUID in its source, from 0 to count - 1
+     * @param msb The most significant bits of the UUID
+     * @param lsb The least significant bits of the UUID
+     */
+    void accept(long index, long msb, long lsb);
+}
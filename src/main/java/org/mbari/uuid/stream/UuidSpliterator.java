@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.stream;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * A sized source of freshly generated UUIDs of one {@link UuidFlavor}. UUIDs are generated in
+ * batches with {@link UuidFlavor#fill(long[], long[], int, int)}, so the sequence, counter and
+ * time-based flavors claim a whole batch of counter values or timestamps with one atomic
+ * operation rather than one per UUID. {@link #trySplit()} hands half of the remaining positions to
+ * a new spliterator with its own buffer, so parallel workers never share a batch and touch the
+ * shared counter only once per batch.
+ *
+ * Each UUID has an index, its position in the source, which {@link UuidBitsConsumer} receives
+ * along with the bits. Indexes are handed out exactly once, so they can be used to assign ids to
+ * the elements of an array in parallel. The UUIDs are not sorted by index.
+ *
+ * Like other spliterators this is not thread-safe; split it to share work between threads.
+ */
+public final class UuidSpliterator implements Spliterator<UUID> {
+
+    /** The default number of UUIDs generated per batch */
+    public static final int DEFAULT_BATCH = 1024;
+
+    private final UuidFlavor flavor;
+    private final int batch;
+    private long[] msb;
+    private long[] lsb;
+    /** buffered UUIDs are msb[pos..filled) with indexes [index, index + filled - pos) */
+    private int pos;
+    private int filled;
+    private long index;
+    private long end;
+
+    /**
+     * @param flavor The kind of UUID to generate
+     * @param count The number of UUIDs
+     */
+    public UuidSpliterator(UuidFlavor flavor, long count) {
+        this(flavor, 0, count, DEFAULT_BATCH);
+    }
+
+    /**
+     * @param flavor The kind of UUID to generate
+     * @param origin The index of the first UUID
+     * @param end The index after the last UUID
+     * @param batch The number of UUIDs generated per batch
+     */
+    public UuidSpliterator(UuidFlavor flavor, long origin, long end, int batch) {
+        if (origin < 0 || end < origin) {
+            throw new IllegalArgumentException("Invalid range: " + origin + " to " + end);
+        }
+        if (batch < 1) {
+            throw new IllegalArgumentException("batch must be positive. Found " + batch);
+        }
+        this.flavor = Objects.requireNonNull(flavor);
+        this.index = origin;
+        this.end = end;
+        this.batch = batch;
+    }
+
+    /**
+     * @return The kind of UUID generated
+     */
+    public UuidFlavor getFlavor() {
+        return flavor;
+    }
+
+    /** Generate the next batch into the buffer. Only called when the buffer is empty */
+    private void refill() {
+        int n = (int) Math.min(batch, end - index);
+        if (msb == null) {
+            msb = new long[n];
+            lsb = new long[msb.length];
+        }
+        flavor.fill(msb, lsb, 0, n);
+        pos = 0;
+        filled = n;
+    }
+
+    /**
+     * @param action Receives the index and bits of the next UUID
+     * @return false if there are no UUIDs left
+     */
+    public boolean tryAdvance(UuidBitsConsumer action) {
+        if (index >= end) {
+            return false;
+        }
+        if (pos == filled) {
+            refill();
+        }
+        action.accept(index++, msb[pos], lsb[pos]);
+        pos++;
+        return true;
+    }
+
+    /**
+     * @param action Receives the index and bits of each remaining UUID
+     */
+    public void forEachRemaining(UuidBitsConsumer action) {
+        while (index < end) {
+            if (pos == filled) {
+                refill();
+            }
+            for (; pos < filled; pos++) {
+                action.accept(index++, msb[pos], lsb[pos]);
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super UUID> action) {
+        return tryAdvance((i, m, l) -> action.accept(new UUID(m, l)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super UUID> action) {
+        forEachRemaining((i, m, l) -> action.accept(new UUID(m, l)));
+    }
+
+    /**
+     * Split off the first half of the remaining UUIDs. Nothing is split once this spliterator has
+     * started generating, or when fewer than two batches remain.
+     */
+    @Override
+    public UuidSpliterator trySplit() {
+        if (pos != filled || end - index < 2L * batch) {
+            return null;
+        }
+        long mid = index + (end - index) / 2;
+        var prefix = new UuidSpliterator(flavor, index, mid, batch);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | NONNULL | IMMUTABLE | DISTINCT;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.stream;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.mbari.uuid.UuidFlavor;
+
+/**
+ * Streams of freshly generated UUIDs backed by {@link UuidSpliterator}, which claims counter
+ * values and timestamps a batch at a time and splits into independent halves, so parallel
+ * pipelines do not contend on the generators' shared state for every element.
+ *
+ * <pre>
+ * // ids for a parallel pipeline
+ * List&lt;UUID&gt; ids = UuidStreams.stream(UuidFlavor.SEQUENCE, n).parallel().collect(toList());
+ *
+ * // assign an id to every record on all fork-join workers without creating UUID objects
+ * UuidStreams.forEach(UuidFlavor.SEQUENCE, records.length,
+ *         (i, msb, lsb) -&gt; records[(int) i].setId(msb, lsb));
+ * </pre>
+ */
+public final class UuidStreams {
+
+    private UuidStreams() {
+        // static methods only
+    }
+
+    /**
+     * @param flavor The kind of UUID to generate
+     * @param count The number of UUIDs
+     * @return A sequential stream of count new UUIDs. Call {@link Stream#parallel()} to generate
+     *     them on the common fork-join pool
+     */
+    public static Stream<UUID> stream(UuidFlavor flavor, long count) {
+        return StreamSupport.stream(new UuidSpliterator(flavor, count), false);
+    }
+
+    /**
+     * Generate count UUIDs in parallel on the common fork-join pool and pass each one, with its
+     * index, to the consumer. Each index from 0 to count - 1 is passed exactly once. The consumer
+     * is called from several threads at once.
+     *
+     * @param flavor The kind of UUID to generate
+     * @param count The number of UUIDs
+     * @param consumer Receives the index and bits of every UUID
+     */
+    public static void forEach(UuidFlavor flavor, long count, UuidBitsConsumer consumer) {
+        forEach(new UuidSpliterator(flavor, count), consumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Drain a spliterator in parallel, splitting it into about four pieces per worker.
+     *
+     * @param spliterator The UUIDs to generate
+     * @param consumer Receives the index and bits of every UUID
+     * @param pool The pool to run on
+     */
+    public static void forEach(UuidSpliterator spliterator, UuidBitsConsumer consumer, ForkJoinPool pool) {
+        long threshold = Math.max(1, spliterator.estimateSize() / (4L * pool.getParallelism()));
+        pool.invoke(new ForEachTask(spliterator, consumer, threshold));
+    }
+
+    private static final class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UuidSpliterator spliterator;
+        private final UuidBitsConsumer consumer;
+        private final long threshold;
+
+        ForEachTask(UuidSpliterator spliterator, UuidBitsConsumer consumer, long threshold) {
+            this.spliterator = spliterator;
+            this.consumer = consumer;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            var forked = new ArrayList<ForEachTask>();
+            UuidSpliterator prefix;
+            while (spliterator.estimateSize() > threshold && (prefix = spliterator.trySplit()) != null) {
+                var task = new ForEachTask(prefix, consumer, threshold);
+                task.fork();
+                forked.add(task);
+            }
+            spliterator.forEachRemaining(consumer);
+            for (var task : forked) {
+                task.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.time;
+
+import com.fasterxml.uuid.EthernetAddress;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mbari.uuid.metrics.ClockWatch;
+import org.mbari.uuid.metrics.GeneratorMetrics;
+import org.mbari.uuid.node.NodeIdentity;
+
+/**
+ * Generates time-based version 1 UUIDs and their reordered version 6 form from the same
+ * timestamp.
+ *
+ * The 60 bit timestamp counts 100 nanosecond intervals since 1582-10-15. It is kept in an
+ * {@link AtomicLong} and advanced with a compare-and-set to {@code max(now, last + 1)}, so no two
+ * calls ever see the same timestamp and no lock is taken. That matters under virtual threads,
+ * where a synchronized timer pins the carrier thread. When more than 10,000 UUIDs are requested
+ * in one millisecond, or the clock steps backwards, the timestamp runs ahead of the clock until
+ * the clock catches up.
+ *
+ * The clock sequence is random for each generator and the node is a 48 bit MAC address, as in
+ * <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-1">RFC 9562</a>.
+ */
+public class Version1Generator {
+
+    /** 100 ns intervals between 1582-10-15 and 1970-01-01 */
+    private static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+    private static final long TICKS_PER_MILLI = 10_000L;
+
+    private final Clock clock;
+    private final long lsb;
+    private final AtomicLong ticks = new AtomicLong();
+    private final ClockWatch clockWatch = new ClockWatch();
+
+    /**
+     * A generator using the system clock, the {@link NodeIdentity#node()} of this JVM and a random
+     * clock sequence.
+     */
+    public Version1Generator() {
+        this(NodeIdentity.node(), new SecureRandom().nextInt(), Clock.systemUTC());
+    }
+
+    /**
+     * @param node The 48 bit node identifier, usually a MAC address
+     * @param clock The source of the timestamp
+     */
+    public Version1Generator(EthernetAddress node, Clock clock) {
+        this(node.toLong(), new SecureRandom().nextInt(), clock);
+    }
+
+    /**
+     * @param node The 48 bit node identifier. Only the low 48 bits are used.
+     * @param clockSequence The clock sequence. Only the low 14 bits are used.
+     * @param clock The source of the timestamp
+     */
+    public Version1Generator(long node, int clockSequence, Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        this.lsb = 0x8000000000000000L                          // IETF variant
+                | ((clockSequence & 0x3FFFL) << 48)
+                | (node & 0x0000FFFFFFFFFFFFL);
+    }
+
+    /**
+     * @return A version 1 UUID
+     */
+    public UUID uuid1() {
+        return new UUID(uuid1Msb(nextTicks()), lsb);
+    }
+
+    /**
+     * Generate a version 1 UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void uuid1(long[] dest, int offset) {
+        dest[offset] = uuid1Msb(nextTicks());
+        dest[offset + 1] = lsb;
+    }
+
+    /**
+     * @return A version 6 UUID, i.e. a version 1 UUID with the timestamp bits reordered from most to
+     *     least significant so that it sorts by time
+     */
+    public UUID uuid6() {
+        return new UUID(uuid6Msb(nextTicks()), lsb);
+    }
+
+    /**
+     * Generate a version 6 UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void uuid6(long[] dest, int offset) {
+        dest[offset] = uuid6Msb(nextTicks());
+        dest[offset + 1] = lsb;
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of ascending version 1 UUIDs. The timestamps for the
+     * whole batch are claimed with a single compare-and-set.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public void uuid1(long[] msb, long[] lsb, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long t = nextTicks(length);
+        for (int i = offset; i < offset + length; i++, t++) {
+            msb[i] = uuid1Msb(t);
+            lsb[i] = this.lsb;
+        }
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of ascending version 6 UUIDs. The timestamps for the
+     * whole batch are claimed with a single compare-and-set.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public void uuid6(long[] msb, long[] lsb, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long t = nextTicks(length);
+        for (int i = offset; i < offset + length; i++, t++) {
+            msb[i] = uuid6Msb(t);
+            lsb[i] = this.lsb;
+        }
+    }
+
+    private long nextTicks() {
+        return nextTicks(1);
+    }
+
+    /**
+     * Claim n consecutive timestamps.
+     *
+     * @return The first timestamp in the block
+     */
+    private long nextTicks(int n) {
+        long millis = clock.millis();
+        clockWatch.observe(clock, millis);
+        long now = millis * TICKS_PER_MILLI + GREGORIAN_OFFSET;
+        while (true) {
+            long last = ticks.get();
+            long first = now > last ? now : last + 1;
+            long next = first + n - 1;
+            if (ticks.compareAndSet(last, next)) {
+                if (next - now >= TICKS_PER_MILLI && first - 1 - now < TICKS_PER_MILLI) {
+                    // past the 10,000th UUID this millisecond: the timestamp now runs ahead of the clock
+                    GeneratorMetrics.counterOverflow();
+                }
+                return first;
+            }
+            GeneratorMetrics.casRetry();
+        }
+    }
+
+    private static long uuid1Msb(long ticks) {
+        return (ticks << 32)                        // time_low
+                | ((ticks >>> 16) & 0xFFFF0000L)    // time_mid
+                | 0x1000L                           // version
+                | ((ticks >>> 48) & 0x0FFFL);       // time_hi
+    }
+
+    private static long uuid6Msb(long ticks) {
+        return ((ticks << 4) & 0xFFFFFFFFFFFF0000L) // time_high and time_mid
+                | 0x6000L                           // version
+                | (ticks & 0x0FFFL);                // time_low
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Monterey Bay Aquarium Research Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mbari.uuid.time;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mbari.uuid.Entropy;
+import org.mbari.uuid.metrics.ClockWatch;
+import org.mbari.uuid.metrics.GeneratorMetrics;
+
+/**
+ * Generates <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-7">RFC 9562
+ * version 7</a> UUIDs:
+ *
+ * <pre>
+ *    tttttttt-tttt-7ccc-Vcrr-rrrrrrrrrrrr
+ *
+ * t: UTC timestamp (milliseconds since epoch)
+ * 7: version
+ * c: 16 bit counter (12 bits in rand_a, 4 bits at the top of rand_b)
+ * V: variant (binary 10xx)
+ * r: random
+ * </pre>
+ *
+ * The timestamp and counter live together in one {@link AtomicLong} and are advanced with a
+ * compare-and-set, so the generator is lock-free and every UUID it returns is strictly greater
+ * than the previous one, across all threads (RFC 9562 section 6.2, method 1). The counter starts
+ * from a random 15 bit value each millisecond. If it overflows, or the clock steps backwards, the
+ * counter simply carries into the timestamp so ordering is never broken.
+ */
+public class Version7Generator {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+
+    private final Clock clock;
+    private final Entropy entropy;
+
+    /** timestamp << 16 | counter of the last UUID handed out */
+    private final AtomicLong state = new AtomicLong();
+    private final ClockWatch clockWatch = new ClockWatch();
+
+    /**
+     * A generator using the system clock and {@link Entropy#BUFFERED} random bits.
+     */
+    public Version7Generator() {
+        this(Clock.systemUTC(), Entropy.BUFFERED);
+    }
+
+    /**
+     * @param clock The source of the millisecond timestamp
+     * @param entropy The source of the random bits
+     */
+    public Version7Generator(Clock clock, Entropy entropy) {
+        this.clock = Objects.requireNonNull(clock);
+        this.entropy = Objects.requireNonNull(entropy);
+    }
+
+    /**
+     * @return The next UUID
+     */
+    public UUID generate() {
+        long s = reserve(1);
+        return new UUID(mostSignificantBits(s), leastSignificantBits(s, entropy.nextLong()));
+    }
+
+    /**
+     * Generate the next UUID without allocating a {@link UUID}.
+     *
+     * @param dest Receives the most significant bits at {@code offset} and the least significant
+     *             bits at {@code offset + 1}
+     * @param offset The index in dest to start writing at
+     */
+    public void generate(long[] dest, int offset) {
+        long s = reserve(1);
+        dest[offset] = mostSignificantBits(s);
+        dest[offset + 1] = leastSignificantBits(s, entropy.nextLong());
+    }
+
+    /**
+     * Generate a batch of UUIDs. The batch is claimed with a single compare-and-set and the clock
+     * is read once.
+     *
+     * @param n The number of UUIDs to generate
+     * @return n UUIDs in ascending order
+     */
+    public UUID[] generate(int n) {
+        long[] msb = new long[n];
+        long[] lsb = new long[n];
+        fill(msb, lsb, 0, n);
+        var uuids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = new UUID(msb[i], lsb[i]);
+        }
+        return uuids;
+    }
+
+    /**
+     * Fill a range of the arrays with a batch of ascending UUIDs.
+     *
+     * @param msb Receives the most significant bits
+     * @param lsb Receives the least significant bits
+     * @param offset The first index to write
+     * @param length The number of UUIDs to generate
+     */
+    public void fill(long[] msb, long[] lsb, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        long s = reserve(length);
+        for (int i = offset; i < offset + length; i++, s++) {
+            msb[i] = mostSignificantBits(s);
+            lsb[i] = leastSignificantBits(s, entropy.nextLong());
+        }
+    }
+
+    /**
+     * Claim n consecutive timestamp/counter states.
+     *
+     * @return The first state in the block
+     */
+    private long reserve(int n) {
+        long time = clock.millis();
+        clockWatch.observe(clock, time);
+        while (true) {
+            long current = state.get();
+            long first;
+            if (time > (current >>> 16)) {
+                // new millisecond: start the counter at a random value with its top bit clear
+                first = (time << 16) | (entropy.nextLong() & 0x7FFFL);
+            }
+            else {
+                // same millisecond, or the clock went backwards: keep counting
+                first = current + 1;
+            }
+            long last = first + n - 1;
+            if (state.compareAndSet(current, last)) {
+                if ((last >>> 16) > Math.max(time, current >>> 16)) {
+                    // the counter carried into the timestamp
+                    GeneratorMetrics.counterOverflow();
+                }
+                return first;
+            }
+            GeneratorMetrics.casRetry();
+        }
+    }
+
+    private static long mostSignificantBits(long s) {
+        return (s & 0xFFFFFFFFFFFF0000L) | VERSION | ((s >>> 4) & 0x0FFFL);
+    }
+
+    private static long leastSignificantBits(long s, long random) {
+        return VARIANT | ((s & 0xFL) << 58) | (random >>> 6);
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.mbari.uuid;
 
+import java.util.HashSet;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -16,4 +17,18 @@ class UUIDsTest {
         assertEquals("1e9190a3-7f9f-66ce-9d6a-0242ac1c0002", uuid6String);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testUUID4Entropy() {
+        for (var entropy : Entropy.values()) {
+            var seen = new HashSet<UUID>();
+            for (int i = 0; i < 1000; i++) {
+                var uuid = UUIDs.uuid4(entropy);
+                assertEquals(4, uuid.version());
+                assertEquals(2, uuid.variant());
+                assertTrue(seen.add(uuid));
+            }
+            assertEquals(4, UUIDs.comb(entropy).version());
+        }
+    }
+
+}
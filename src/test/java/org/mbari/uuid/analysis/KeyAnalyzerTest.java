@@ -0,0 +1,77 @@
+package org.mbari.uuid.analysis;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.sequence.DecomposedUUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyAnalyzerTest {
+
+    @TempDir
+    Path dir;
+
+    private static ArrayList<UUID> keys() {
+        var keys = new ArrayList<UUID>();
+        for (int i = 0; i < 3000; i++) {
+            keys.add(UUIDs.uuidSequence());
+            keys.add(UUIDs.uuid7());
+            keys.add(UUIDs.uuid4());
+        }
+        return keys;
+    }
+
+    private static void check(KeyStats stats, int n) {
+        assertEquals(3 * n, stats.getTotal());
+        assertEquals(n, stats.getLayoutCount(Layout.SEQUENCE));
+        assertEquals(n, stats.getLayoutCount(Layout.UUID7));
+        assertEquals(n, stats.getVersionCount(0xb));
+        assertEquals(2L * n, stats.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+        var pid = (long) DecomposedUUID.processId(UUIDs.uuidSequence().getMostSignificantBits(), 0L);
+        assertEquals(Long.valueOf(n), stats.getProcessIdCounts().get(pid));
+    }
+
+    @Test
+    public void testText() throws Exception {
+        var keys = keys();
+        var text = new StringBuilder();
+        for (var key : keys) {
+            text.append(key).append(key.hashCode() % 2 == 0 ? "\n" : "\r\n");
+        }
+        text.append("\nnot-a-uuid\n");
+        var file = dir.resolve("keys.txt");
+        Files.writeString(file, text);
+
+        // small chunks so lines straddle chunk boundaries
+        var analyzer = new KeyAnalyzer(Duration.ofMinutes(1), 1000, ForkJoinPool.commonPool());
+        var stats = analyzer.analyze(file, KeyAnalyzer.Format.TEXT);
+        check(stats, keys.size() / 3);
+        assertEquals(1, stats.getInvalid());
+    }
+
+    @Test
+    public void testBinary() throws Exception {
+        var keys = keys();
+        var buffer = ByteBuffer.allocate(keys.size() * 16);
+        for (var key : keys) {
+            buffer.putLong(key.getMostSignificantBits()).putLong(key.getLeastSignificantBits());
+        }
+        var file = dir.resolve("keys.bin");
+        Files.write(file, buffer.array());
+
+        var analyzer = new KeyAnalyzer(Duration.ofMinutes(1), 1000, ForkJoinPool.commonPool());
+        var stats = analyzer.analyze(file, KeyAnalyzer.Format.BINARY);
+        check(stats, keys.size() / 3);
+        assertEquals(0, stats.getInvalid());
+    }
+
+}
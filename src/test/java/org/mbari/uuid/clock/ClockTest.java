@@ -0,0 +1,50 @@
+package org.mbari.uuid.clock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.sequence.DecomposedUUID;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClockTest {
+
+    @Test
+    public void testManualClockControlsTimestamp() {
+        var clock = new ManualClock(1350327498450L);
+        var original = TimeSequenceGenerator.getClock();
+        TimeSequenceGenerator.setClock(clock);
+        try {
+            UUID a = TimeSequenceGenerator.nextUuid();
+            clock.advance(Duration.ofMillis(1));
+            UUID b = TimeSequenceGenerator.nextUuid();
+            clock.setMillis(1350327498000L);
+            UUID c = TimeSequenceGenerator.nextUuid();
+
+            assertEquals(1350327498450L, new DecomposedUUID(a).getTimestamp().toEpochMilli());
+            assertEquals(1350327498451L, new DecomposedUUID(b).getTimestamp().toEpochMilli());
+            assertEquals(1350327498000L, new DecomposedUUID(c).getTimestamp().toEpochMilli());
+        }
+        finally {
+            TimeSequenceGenerator.setClock(original);
+        }
+    }
+
+    @Test
+    public void testCachedClockTicks() throws Exception {
+        var source = new ManualClock(1000L);
+        try (var clock = new CachedClock(source, Duration.ofMillis(1))) {
+            assertEquals(1000L, clock.millis());
+            source.setMillis(2000L);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (clock.millis() != 2000L && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(2000L, clock.millis());
+            assertEquals(Clock.systemUTC().getZone(), clock.getZone());
+        }
+    }
+
+}
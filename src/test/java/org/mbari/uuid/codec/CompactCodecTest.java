@@ -0,0 +1,174 @@
+package org.mbari.uuid.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.order.KeyOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactCodecTest {
+
+    private static final UUID[] UUIDS = {UUIDs.uuid1(), UUIDs.uuid4(), UUIDs.uuid6(), UUIDs.uuid7(),
+            UUIDs.comb(), UUIDs.uuidCounter(), UUIDs.uuidSequence(), new UUID(0L, 0L),
+            new UUID(-1L, -1L), UUID.fromString("20be0ffc-314a-bd53-7a50-013a65ca76d2")};
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Test
+    public void testBase64MatchesJdk() {
+        var chars = new char[Base64Codec.LENGTH + 2];
+        var ascii = new byte[Base64Codec.LENGTH + 2];
+        var bits = new long[2];
+        for (var uuid : UUIDS) {
+            var expected = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes(uuid));
+            long msb = uuid.getMostSignificantBits();
+            long lsb = uuid.getLeastSignificantBits();
+
+            Base64Codec.format(msb, lsb, chars, 2);
+            assertEquals(expected, new String(chars, 2, Base64Codec.LENGTH));
+            Base64Codec.format(msb, lsb, ascii, 2);
+            assertEquals(expected, new String(ascii, 2, Base64Codec.LENGTH, StandardCharsets.US_ASCII));
+
+            assertEquals(uuid, Base64Codec.parse(expected));
+            Base64Codec.parse(ascii, 2, bits, 0);
+            assertEquals(msb, bits[0]);
+            assertEquals(lsb, bits[1]);
+        }
+    }
+
+    @Test
+    public void testBase64Batch() {
+        int n = 50;
+        long[] msb = new long[n];
+        long[] lsb = new long[n];
+        for (int i = 0; i < n; i++) {
+            var uuid = UUIDs.uuid4();
+            msb[i] = uuid.getMostSignificantBits();
+            lsb[i] = uuid.getLeastSignificantBits();
+        }
+        var ascii = new byte[n * Base64Codec.LENGTH + 1];
+        Base64Codec.format(msb, lsb, ascii, 1);
+        long[] msb2 = new long[n];
+        long[] lsb2 = new long[n];
+        Base64Codec.parse(ascii, 1, msb2, lsb2);
+        assertArrayEquals(msb, msb2);
+        assertArrayEquals(lsb, lsb2);
+    }
+
+    @Test
+    public void testBase64RejectsInvalid() {
+        var text = Base64Codec.parse("IL4P_DFKvVN6UAE6Zcp20g");
+        assertEquals(UUID.fromString("20be0ffc-314a-bd53-7a50-013a65ca76d2"), text);
+        // non-zero bits after the 128th
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.parse("IL4P_DFKvVN6UAE6Zcp20h"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.parse("IL4P/DFKvVN6UAE6Zcp20g"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Codec.parse("IL4P_DFKvVN6UAE6Zcp20"));
+    }
+
+    @Test
+    public void testBase32RoundTrip() {
+        var chars = new char[Base32Codec.LENGTH + 2];
+        var ascii = new byte[Base32Codec.LENGTH + 2];
+        var bits = new long[2];
+        for (var order : KeyOrder.values()) {
+            for (var uuid : UUIDS) {
+                long msb = uuid.getMostSignificantBits();
+                long lsb = uuid.getLeastSignificantBits();
+                Base32Codec.format(order, msb, lsb, chars, 2);
+                Base32Codec.format(order, msb, lsb, ascii, 2);
+                var text = new String(chars, 2, Base32Codec.LENGTH);
+                assertEquals(text, new String(ascii, 2, Base32Codec.LENGTH, StandardCharsets.US_ASCII));
+                assertTrue(text.charAt(0) <= '7');
+
+                assertEquals(uuid, Base32Codec.parse(order, text));
+                assertEquals(uuid, Base32Codec.parse(order, text.toLowerCase()));
+                Base32Codec.parse(order, ascii, 2, bits, 0);
+                assertEquals(msb, bits[0]);
+                assertEquals(lsb, bits[1]);
+            }
+        }
+        var uuid = UUID.fromString("20be0ffc-314a-bd53-7a50-013a65ca76d2");
+        var text = "10QR7ZRCAAQN9QMM0179JWMXPJ";
+        Base32Codec.format(uuid, chars, 0);
+        assertEquals(text, new String(chars, 0, Base32Codec.LENGTH));
+        assertEquals(uuid, Base32Codec.parse(text));
+        // Crockford aliases
+        assertEquals(uuid, Base32Codec.parse(text.replace('1', 'l').replace('0', 'O')));
+    }
+
+    @Test
+    public void testBase32RejectsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Base32Codec.parse("80000000000000000000000000"));
+        assertThrows(IllegalArgumentException.class, () -> Base32Codec.parse("0000000000000000000000000U"));
+        assertThrows(IllegalArgumentException.class, () -> Base32Codec.parse("000000000000000000000000"));
+        assertEquals(new UUID(-1L, -1L), Base32Codec.parse("7ZZZZZZZZZZZZZZZZZZZZZZZZZ"));
+    }
+
+    private static void assertTextSortsLikeKeys(KeyOrder order, List<UUID> uuids) {
+        var chars = new char[Base32Codec.LENGTH];
+        var texts = new ArrayList<String>();
+        for (var uuid : uuids) {
+            Base32Codec.format(order, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(),
+                    chars, 0);
+            texts.add(new String(chars));
+        }
+        var sorted = new ArrayList<>(uuids);
+        sorted.sort(order.comparator());
+        texts.sort(Comparator.naturalOrder());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), Base32Codec.parse(order, texts.get(i)));
+        }
+    }
+
+    @Test
+    public void testBase32PreservesOrder() {
+        for (var order : KeyOrder.values()) {
+            var uuids = new ArrayList<UUID>();
+            for (int i = 0; i < 500; i++) {
+                uuids.add(UUIDs.uuid4());
+            }
+            uuids.add(new UUID(0L, 0L));
+            uuids.add(new UUID(-1L, -1L));
+            uuids.add(new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+            assertTextSortsLikeKeys(order, uuids);
+        }
+    }
+
+    @Test
+    public void testBase32TimeOrderedIdsSortAsText() throws InterruptedException {
+        var v6 = new ArrayList<String>();
+        var v7 = new ArrayList<String>();
+        var sequence = new ArrayList<String>();
+        var chars = new char[Base32Codec.LENGTH];
+        for (int i = 0; i < 5; i++) {
+            var a = UUIDs.uuid6();
+            Base32Codec.format(a, chars, 0);
+            v6.add(new String(chars));
+            var b = UUIDs.uuid7();
+            Base32Codec.format(b, chars, 0);
+            v7.add(new String(chars));
+            var c = UUIDs.uuidSequence();
+            Base32Codec.format(KeyOrder.SQL_SERVER, c.getMostSignificantBits(),
+                    c.getLeastSignificantBits(), chars, 0);
+            sequence.add(new String(chars));
+            Thread.sleep(2);
+        }
+        for (var texts : List.of(v6, v7, sequence)) {
+            var sorted = new ArrayList<>(texts);
+            sorted.sort(Comparator.naturalOrder());
+            assertEquals(texts, sorted);
+        }
+    }
+}
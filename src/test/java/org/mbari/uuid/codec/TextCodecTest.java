@@ -0,0 +1,71 @@
+package org.mbari.uuid.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        var uuids = new UUID[] {UUIDs.uuid1(), UUIDs.uuid4(), UUIDs.uuid7(), UUIDs.uuidSequence(),
+                new UUID(0L, 0L), new UUID(-1L, -1L)};
+        var chars = new char[TextCodec.LENGTH + 2];
+        var bytes = new byte[TextCodec.LENGTH + 2];
+        var bits = new long[2];
+        for (var uuid : uuids) {
+            var expected = uuid.toString();
+            long msb = uuid.getMostSignificantBits();
+            long lsb = uuid.getLeastSignificantBits();
+
+            TextCodec.format(msb, lsb, chars, 2);
+            assertEquals(expected, new String(chars, 2, TextCodec.LENGTH));
+            TextCodec.format(msb, lsb, bytes, 2);
+            assertEquals(expected, new String(bytes, 2, TextCodec.LENGTH, StandardCharsets.US_ASCII));
+
+            var direct = ByteBuffer.allocateDirect(TextCodec.LENGTH);
+            TextCodec.format(msb, lsb, direct);
+            assertEquals(TextCodec.LENGTH, direct.position());
+            direct.flip();
+            assertEquals(expected, StandardCharsets.US_ASCII.decode(direct).toString());
+
+            assertEquals(uuid, TextCodec.parse(expected));
+            assertEquals(uuid, TextCodec.parse(expected.toUpperCase()));
+            TextCodec.parse(bytes, 2, bits, 0);
+            assertEquals(msb, bits[0]);
+            assertEquals(lsb, bits[1]);
+        }
+    }
+
+    @Test
+    public void testBulk() {
+        var uuids = UUIDs.uuidSequence(10);
+        long[] msb = new long[uuids.length];
+        long[] lsb = new long[uuids.length];
+        for (int i = 0; i < uuids.length; i++) {
+            msb[i] = uuids[i].getMostSignificantBits();
+            lsb[i] = uuids[i].getLeastSignificantBits();
+        }
+        var bytes = new byte[uuids.length * TextCodec.LENGTH];
+        TextCodec.format(msb, lsb, bytes, 0);
+        long[] msb2 = new long[uuids.length];
+        long[] lsb2 = new long[uuids.length];
+        TextCodec.parse(bytes, 0, msb2, lsb2);
+        assertArrayEquals(msb, msb2);
+        assertArrayEquals(lsb, lsb2);
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> TextCodec.parse("not a uuid"));
+        assertThrows(IllegalArgumentException.class,
+                () -> TextCodec.parse("20be0ffc-314a-bd53-7a50-013a65ca76dg"));
+        assertThrows(IllegalArgumentException.class,
+                () -> TextCodec.parse("20be0ffc0314a-bd53-7a50-013a65ca76d2"));
+    }
+
+}
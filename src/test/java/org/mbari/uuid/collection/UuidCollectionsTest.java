@@ -0,0 +1,89 @@
+package org.mbari.uuid.collection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidCollectionsTest {
+
+    private static UUID[] keys(Random random, int n) {
+        var keys = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            switch (i % 4) {
+                case 0: keys[i] = UUIDs.uuidSequence(); break;
+                case 1: keys[i] = UUIDs.uuid7(); break;
+                case 2: keys[i] = new UUID(random.nextInt(8), random.nextInt(8)); break;  // clustered, incl. nil
+                default: keys[i] = UUIDs.uuid4();
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    public void testMapMatchesHashMap() {
+        var random = new Random(3);
+        for (UuidHasher hasher : new UuidHasher[] {UuidHasher.DEFAULT, UuidHasher.SEQUENCE, UuidHasher.RANDOM}) {
+            var keys = keys(random, 4000);
+            var map = new UuidLongMap(4, -1L, hasher);
+            var expected = new HashMap<UUID, Long>();
+            for (int i = 0; i < 50_000; i++) {
+                UUID key = keys[random.nextInt(keys.length)];
+                long value = random.nextLong();
+                switch (random.nextInt(3)) {
+                    case 0:
+                        assertEquals(expected.getOrDefault(key, -1L), map.put(key, value));
+                        expected.put(key, value);
+                        break;
+                    case 1:
+                        assertEquals(expected.getOrDefault(key, -1L), map.remove(key));
+                        expected.remove(key);
+                        break;
+                    default:
+                        assertEquals(expected.getOrDefault(key, -1L), map.get(key));
+                        assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+                assertEquals(expected.size(), map.size());
+            }
+            var seen = new HashMap<UUID, Long>();
+            map.forEach((msb, lsb, value) -> assertNull(seen.put(new UUID(msb, lsb), value)));
+            assertEquals(expected, seen);
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertEquals(-1L, map.get(keys[0]));
+        }
+    }
+
+    @Test
+    public void testSetMatchesHashSet() {
+        var random = new Random(4);
+        for (UuidHasher hasher : new UuidHasher[] {UuidHasher.DEFAULT, UuidHasher.SEQUENCE, UuidHasher.RANDOM}) {
+            var keys = keys(random, 4000);
+            var set = new UuidHashSet(0, hasher);
+            var expected = new HashSet<UUID>();
+            for (int i = 0; i < 50_000; i++) {
+                UUID key = keys[random.nextInt(keys.length)];
+                if (random.nextBoolean()) {
+                    assertEquals(expected.add(key), set.add(key));
+                }
+                else {
+                    assertEquals(expected.remove(key), set.remove(key));
+                }
+                assertEquals(expected.size(), set.size());
+            }
+            for (UUID key : keys) {
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+            var seen = new ArrayList<UUID>();
+            set.forEach((msb, lsb) -> seen.add(new UUID(msb, lsb)));
+            assertEquals(expected, new HashSet<>(seen));
+            assertEquals(expected.size(), seen.size());
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.mbari.uuid.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Entropy;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.UuidFlavor;
+import org.mbari.uuid.clock.ManualClock;
+import org.mbari.uuid.sequence.CounterSequenceGenerator;
+import org.mbari.uuid.sequence.LocalitySequenceGenerator;
+import org.mbari.uuid.sequence.SequenceCounter;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.mbari.uuid.time.Version1Generator;
+import org.mbari.uuid.time.Version7Generator;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneratorMetricsTest {
+
+    @Test
+    public void testCountsAndMBean() throws Exception {
+        var metrics = GeneratorMetrics.getInstance();
+        long before = metrics.getGenerated(UuidFlavor.UUID7);
+        UUIDs.uuid7();
+        UUIDs.uuid7(10);
+        assertTrue(metrics.getGenerated(UuidFlavor.UUID7) >= before + 11);
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(GeneratorMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        assertNotNull(server.getAttribute(name, "RatePerSecond"));
+    }
+
+    @Test
+    public void testClockRegressionAndOverflow() {
+        var metrics = GeneratorMetrics.getInstance();
+        var clock = new ManualClock(Instant.parse("2019-06-01T12:00:00Z"));
+        var v7 = new Version7Generator(clock, Entropy.FAST);
+        var v1 = new Version1Generator(0x0123456789ABL, 7, clock);
+        v7.generate();
+        v1.uuid1();
+
+        long regressions = metrics.getClockRegressions();
+        clock.setMillis(clock.millis() - 1000);
+        for (int i = 0; i < 10; i++) {
+            v7.generate();
+            v1.uuid1();
+        }
+        assertEquals(regressions + 2, metrics.getClockRegressions());
+
+        // fresh generators, so the timestamps are not already ahead of the clock
+        v7 = new Version7Generator(clock, Entropy.FAST);
+        v1 = new Version1Generator(0x0123456789ABL, 7, clock);
+        long overflows = metrics.getCounterOverflows();
+        v7.generate(70_000);
+        assertEquals(overflows + 1, metrics.getCounterOverflows());
+        for (int i = 0; i < 10_001; i++) {
+            v1.uuid1();
+        }
+        assertEquals(overflows + 2, metrics.getCounterOverflows());
+    }
+
+    @Test
+    public void testSequenceClockRegression() {
+        var metrics = GeneratorMetrics.getInstance();
+        var clock = new ManualClock(Instant.parse("2019-06-01T12:00:00Z"));
+        var locality = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SCATTERED, clock);
+        TimeSequenceGenerator.setClock(clock);
+        CounterSequenceGenerator.setClock(clock);
+        try {
+            TimeSequenceGenerator.nextUuid();
+            CounterSequenceGenerator.nextUuid();
+            locality.nextUuid();
+
+            long regressions = metrics.getClockRegressions();
+            clock.setMillis(clock.millis() - 1000);
+            for (int i = 0; i < 10; i++) {
+                TimeSequenceGenerator.nextUuid();
+                CounterSequenceGenerator.nextUuids(3);
+                locality.nextUuid();
+            }
+            assertEquals(regressions + 3, metrics.getClockRegressions());
+        }
+        finally {
+            TimeSequenceGenerator.setClock(Clock.systemUTC());
+            CounterSequenceGenerator.setClock(Clock.systemUTC());
+        }
+    }
+
+    @Test
+    public void testCounterWraps() {
+        for (int increment : new int[] {1, 198491317, 12}) {
+            for (int lanes : new int[] {1, 4}) {
+                var counter = SequenceCounter.striped(-5, increment, lanes);
+                int cycle = increment == 12 ? (1 << 30) / lanes : 0;
+                // the first block never wraps, a block covering a whole cycle always does
+                assertFalse(counter.wrapped(counter.reserve(1000), 1000));
+                if (cycle > 0) {
+                    assertTrue(counter.wrapped(counter.reserve(cycle), cycle));
+                }
+                // step up to just before the end of the cycle, then cross it
+                var fresh = SequenceCounter.striped(-5, increment, lanes);
+                long length = increment == 12 ? (1L << 30) / lanes : (1L << 32) / lanes;
+                long done = 0;
+                while (done < length - 10) {
+                    int n = (int) Math.min(1 << 30, length - 10 - done);
+                    assertFalse(fresh.wrapped(fresh.reserve(n), n));
+                    done += n;
+                }
+                assertFalse(fresh.wrapped(fresh.reserve(9), 9));
+                assertTrue(fresh.wrapped(fresh.reserve(2), 2));
+            }
+        }
+    }
+
+    @Test
+    public void testSameMillisecondWrapsPerLane() {
+        var metrics = GeneratorMetrics.getInstance();
+        long wraps = metrics.getCounterWraps();
+        long same = metrics.getSameMillisecondWraps();
+        // disjoint lanes wrapping together cannot repeat ids
+        GeneratorMetrics.counterWrap(UuidFlavor.COUNTER, 1000, 42L);
+        GeneratorMetrics.counterWrap(UuidFlavor.COUNTER, 1001, 42L);
+        GeneratorMetrics.counterWrap(UuidFlavor.SEQUENCE, 1000, 42L);
+        assertEquals(same, metrics.getSameMillisecondWraps());
+        GeneratorMetrics.counterWrap(UuidFlavor.COUNTER, 1000, 42L);
+        assertEquals(same + 1, metrics.getSameMillisecondWraps());
+        assertEquals(wraps + 4, metrics.getCounterWraps());
+    }
+
+}
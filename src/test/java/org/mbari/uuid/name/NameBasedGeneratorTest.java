@@ -0,0 +1,81 @@
+package org.mbari.uuid.name;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameBasedGeneratorTest {
+
+    private static final UUID DNS = NameBasedGenerator.NAMESPACE_DNS;
+
+    @Test
+    public void testKnownValues() {
+        assertEquals(UUID.fromString("2ed6657d-e927-568b-95e1-2665a8aea6a2"),
+                UUIDs.uuid5(DNS, "www.example.com"));
+        assertEquals(UUID.fromString("5df41881-3aed-3515-88a7-2f4a814cf09e"),
+                UUIDs.uuid3(DNS, "www.example.com"));
+    }
+
+    @Test
+    public void testMatchesJdkNameUuid() {
+        var names = new String[] {"", "a", "www.example.com", "grüße", "日本語", "emoji 😀",
+                "unpaired \uD800 surrogate", "x".repeat(1000) + "é".repeat(300)};
+        for (var name : names) {
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            var bytes = ByteBuffer.allocate(16 + utf8.length)
+                    .putLong(DNS.getMostSignificantBits())
+                    .putLong(DNS.getLeastSignificantBits())
+                    .put(utf8)
+                    .array();
+            var expected = UUID.nameUUIDFromBytes(bytes);
+            assertEquals(expected, UUIDs.uuid3(DNS, name), name);
+            assertEquals(expected, UUIDs.uuid3(DNS, new StringBuilder(name)), name);
+            assertEquals(expected, UUIDs.uuid3(DNS, utf8), name);
+        }
+    }
+
+    @Test
+    public void testInputFormsAgree() {
+        var name = "record-42";
+        var expected = UUIDs.uuid5(DNS, name);
+        assertEquals(5, expected.version());
+        assertEquals(2, expected.variant());
+
+        var direct = ByteBuffer.allocateDirect(32);
+        direct.put(new byte[3]).put(name.getBytes(StandardCharsets.UTF_8)).flip().position(3);
+        assertEquals(expected, UUIDs.uuid5(DNS, direct));
+        assertEquals(3, direct.position());
+
+        var padded = ("xx" + name + "yy").getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, NameBasedGenerator.SHA1.generate(DNS, padded, 2, name.length()));
+
+        var dest = new long[2];
+        NameBasedGenerator.SHA1.generate(DNS, name, dest, 0);
+        assertEquals(expected, new UUID(dest[0], dest[1]));
+    }
+
+    @Test
+    public void testBulk() {
+        var names = new CharSequence[100];
+        var bytes = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "name-" + i;
+            bytes[i] = names[i].toString().getBytes(StandardCharsets.UTF_8);
+        }
+        long[] msb = new long[names.length];
+        long[] lsb = new long[names.length];
+        UUIDs.uuid5(NameBasedGenerator.NAMESPACE_URL, names, msb, lsb);
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(UUIDs.uuid5(NameBasedGenerator.NAMESPACE_URL, names[i]), new UUID(msb[i], lsb[i]));
+        }
+        long[] msb2 = new long[names.length];
+        long[] lsb2 = new long[names.length];
+        NameBasedGenerator.SHA1.generate(NameBasedGenerator.NAMESPACE_URL, bytes, msb2, lsb2);
+        assertArrayEquals(msb, msb2);
+        assertArrayEquals(lsb, lsb2);
+    }
+}
@@ -0,0 +1,42 @@
+package org.mbari.uuid.node;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeIdentityTest {
+
+    @Test
+    public void testParseNode() {
+        assertEquals(0x0242ac1c0002L, NodeIdentity.parseNode("0242ac1c0002"));
+        assertEquals(0x0242ac1c0002L, NodeIdentity.parseNode("02:42:AC:1C:00:02"));
+        assertEquals(0x0242ac1c0002L, NodeIdentity.parseNode("02-42-ac-1c-00-02"));
+        assertEquals(0xFFFFFFFFFFFFL, NodeIdentity.parseNode("ffffffffffff"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdentity.parseNode("0242ac1c00"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdentity.parseNode("0242ac1c00zz"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdentity.parseNode("0242ac1c0002aa"));
+    }
+
+    @Test
+    public void testParsePid() {
+        assertEquals(4711L, NodeIdentity.parsePid("4711"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdentity.parsePid("-1"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdentity.parsePid("pid"));
+    }
+
+    @Test
+    public void testResolvedIdentity() {
+        long node = NodeIdentity.node();
+        assertEquals(0, node >>> 48);
+        assertEquals(node, NodeIdentity.node());
+        byte[] bytes = NodeIdentity.nodeBytes();
+        assertEquals(6, bytes.length);
+        long fromBytes = 0;
+        for (byte b : bytes) {
+            fromBytes = (fromBytes << 8) | (b & 0xFF);
+        }
+        assertEquals(node, fromBytes);
+        if (System.getProperty(NodeIdentity.PID_PROPERTY) == null && System.getenv(NodeIdentity.PID_ENV) == null) {
+            assertEquals(ProcessHandle.current().pid(), NodeIdentity.pid());
+        }
+    }
+}
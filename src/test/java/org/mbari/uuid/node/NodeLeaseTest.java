@@ -0,0 +1,70 @@
+package org.mbari.uuid.node;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mbari.uuid.clock.ManualClock;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeLeaseTest {
+
+    @Test
+    public void testLeasesAreDistinctAndReleased(@TempDir Path dir) {
+        var file = dir.resolve("node.lease");
+        var slots = new HashSet<Integer>();
+        var leases = new NodeLease[8];
+        for (int i = 0; i < leases.length; i++) {
+            leases[i] = NodeLease.acquire(file, 8, Duration.ofSeconds(30));
+            assertTrue(slots.add(leases[i].getSlot()));
+            assertTrue(leases[i].isHeld());
+        }
+        assertThrows(IllegalStateException.class, () -> NodeLease.acquire(file, 8, Duration.ofSeconds(30)));
+
+        int freed = leases[3].getSlot();
+        leases[3].close();
+        assertFalse(leases[3].isHeld());
+        try (var lease = NodeLease.acquire(file, 8, Duration.ofSeconds(30))) {
+            assertEquals(freed, lease.getSlot());
+        }
+        for (var lease : leases) {
+            lease.close();
+        }
+    }
+
+    @Test
+    public void testExpiredLeaseIsTakenOver(@TempDir Path dir) {
+        var file = dir.resolve("node.lease");
+        var clock = new ManualClock(1_000_000L);
+        var ttl = Duration.ofSeconds(30);
+        var first = NodeLease.acquire(file, 1, ttl, clock, false);
+
+        clock.setMillis(clock.millis() + 20_000);
+        assertTrue(first.heartbeat());
+        clock.setMillis(clock.millis() + 20_000);
+        assertThrows(IllegalStateException.class, () -> NodeLease.acquire(file, 1, ttl, clock, false));
+
+        // no heartbeat for longer than the time to live
+        clock.setMillis(clock.millis() + 31_000);
+        var second = NodeLease.acquire(file, 1, ttl, clock, false);
+        assertEquals(first.getSlot(), second.getSlot());
+        assertFalse(first.heartbeat());
+        assertFalse(first.isHeld());
+        assertTrue(second.heartbeat());
+
+        // closing a lost lease must not free the new owner's slot
+        first.close();
+        assertThrows(IllegalStateException.class, () -> NodeLease.acquire(file, 1, ttl, clock, false));
+        second.close();
+    }
+
+    @Test
+    public void testRejectsForeignFile(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("other.lease");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalStateException.class, () -> NodeLease.acquire(file));
+    }
+}
@@ -0,0 +1,80 @@
+package org.mbari.uuid.order;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Entropy;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.clock.ManualClock;
+import org.mbari.uuid.sequence.TimeSequenceGenerator;
+import org.mbari.uuid.time.Version1Generator;
+import org.mbari.uuid.time.Version7Generator;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyRangeTest {
+
+    private static final Instant FROM = Instant.parse("2019-06-01T12:00:00Z");
+    private static final Instant TO = Instant.parse("2019-06-01T13:00:00Z");
+
+    /** Times are visited in ascending order because the generators never move backwards */
+    private static void check(KeyRange range, ManualClock clock, Supplier<UUID> generator) {
+        long[] times = {FROM.toEpochMilli() - 1, FROM.toEpochMilli(), FROM.toEpochMilli() + 1234,
+                TO.toEpochMilli() - 1, TO.toEpochMilli(), TO.toEpochMilli() + 60_000};
+        for (long t : times) {
+            clock.setMillis(t);
+            boolean inside = t >= FROM.toEpochMilli() && t < TO.toEpochMilli();
+            for (int i = 0; i < 100; i++) {
+                var uuid = generator.get();
+                assertEquals(inside, range.contains(uuid), range + " and " + uuid + " at " + t);
+            }
+        }
+    }
+
+    @Test
+    public void testUuid7() {
+        for (var order : new KeyOrder[] {KeyOrder.SIGNED, KeyOrder.UNSIGNED}) {
+            var clock = new ManualClock(FROM);
+            var generator = new Version7Generator(clock, Entropy.FAST);
+            check(KeyRange.of(Layout.UUID7, order, FROM, TO), clock, generator::generate);
+        }
+    }
+
+    @Test
+    public void testUuid6() {
+        for (var order : new KeyOrder[] {KeyOrder.SIGNED, KeyOrder.UNSIGNED}) {
+            var clock = new ManualClock(FROM);
+            var generator = new Version1Generator(0x0123456789ABL, 42, clock);
+            check(KeyRange.of(Layout.UUID6, order, FROM, TO), clock, generator::uuid6);
+        }
+    }
+
+    @Test
+    public void testSequence() {
+        var clock = new ManualClock(FROM);
+        Clock original = TimeSequenceGenerator.getClock();
+        TimeSequenceGenerator.setClock(clock);
+        try {
+            check(KeyRange.of(Layout.SEQUENCE, KeyOrder.SQL_SERVER, FROM, TO), clock,
+                    TimeSequenceGenerator::nextUuid);
+        }
+        finally {
+            TimeSequenceGenerator.setClock(original);
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        assertFalse(KeyRange.supports(Layout.SEQUENCE, KeyOrder.UNSIGNED));
+        assertFalse(KeyRange.supports(Layout.UUID7, KeyOrder.SQL_SERVER));
+        assertFalse(KeyRange.supports(Layout.COMB, KeyOrder.SQL_SERVER));
+        assertFalse(KeyRange.supports(Layout.UUID1, KeyOrder.UNSIGNED));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeyRange.of(Layout.UUID4, KeyOrder.UNSIGNED, FROM, TO));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeyRange.of(Layout.UUID7, KeyOrder.UNSIGNED, TO, FROM));
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.mbari.uuid.order;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeySorterTest {
+
+    /** SqlGuid's byte precedence, most significant first, in string (big-endian) byte positions */
+    private static final int[] SQL_SERVER_BYTES = {10, 11, 12, 13, 14, 15, 8, 9, 7, 6, 5, 4, 3, 2, 1, 0};
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static int sqlServerCompare(UUID a, UUID b) {
+        byte[] x = bytes(a);
+        byte[] y = bytes(b);
+        for (int i : SQL_SERVER_BYTES) {
+            int c = Integer.compare(x[i] & 0xFF, y[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static UUID[] sample(Random random, int n) {
+        var uuids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            switch (i % 4) {
+                case 0: uuids[i] = new UUID(random.nextLong(), random.nextLong()); break;
+                case 1: uuids[i] = UUIDs.uuidSequence(); break;
+                case 2: uuids[i] = UUIDs.uuid7(); break;
+                default: uuids[i] = UUIDs.comb();
+            }
+        }
+        return uuids;
+    }
+
+    @Test
+    public void testComparators() {
+        var uuids = sample(new Random(42), 400);
+        for (UUID a : uuids) {
+            for (UUID b : uuids) {
+                assertEquals(Integer.signum(a.compareTo(b)),
+                        Integer.signum(KeyOrder.SIGNED.comparator().compare(a, b)));
+                assertEquals(Integer.signum(Arrays.compareUnsigned(bytes(a), bytes(b))),
+                        Integer.signum(KeyOrder.UNSIGNED.comparator().compare(a, b)));
+                assertEquals(Integer.signum(sqlServerCompare(a, b)),
+                        Integer.signum(KeyOrder.SQL_SERVER.comparator().compare(a, b)));
+            }
+        }
+    }
+
+    @Test
+    public void testSortMatchesComparator() {
+        var random = new Random(7);
+        for (KeyOrder order : KeyOrder.values()) {
+            var sorter = new KeySorter(order);
+            for (int n : new int[] {0, 1, 2, 10, 48, 49, 1000, 5000}) {
+                var uuids = sample(random, n);
+                long[] msb = new long[n + 2];
+                long[] lsb = new long[n + 2];
+                for (int i = 0; i < n; i++) {
+                    msb[i + 1] = uuids[i].getMostSignificantBits();
+                    lsb[i + 1] = uuids[i].getLeastSignificantBits();
+                }
+                msb[0] = lsb[0] = msb[n + 1] = lsb[n + 1] = 0x5A5A5A5A5A5A5A5AL;
+                sorter.sort(msb, lsb, 1, n);
+                Arrays.sort(uuids, order.comparator());
+                for (int i = 0; i < n; i++) {
+                    assertEquals(uuids[i], new UUID(msb[i + 1], lsb[i + 1]), order + " n = " + n);
+                }
+                assertEquals(0x5A5A5A5A5A5A5A5AL, msb[0]);
+                assertEquals(0x5A5A5A5A5A5A5A5AL, lsb[n + 1]);
+            }
+        }
+    }
+
+}
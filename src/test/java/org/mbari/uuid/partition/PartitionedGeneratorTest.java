@@ -0,0 +1,117 @@
+package org.mbari.uuid.partition;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.sequence.CounterSequenceGenerator;
+import org.mbari.uuid.sequence.DecomposedUUID;
+import org.mbari.uuid.time.Version7Generator;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedGeneratorTest {
+
+    @Test
+    public void testMurmur3Vectors() {
+        // Reference MurmurHash3_x86_32 results for 4 byte inputs
+        long aaaa = (long) ascii("aaaa") << 32;
+        long abcd = (long) ascii("abcd") << 32;
+        assertEquals(0x5A97808A, Murmur3.hash(aaaa, 0L, 4, 0x9747b28c));
+        assertEquals(0xF0478627, Murmur3.hash(abcd, 0L, 4, 0x9747b28c));
+        assertEquals(0xF55B516B, Murmur3.hash(0x21436587L << 32, 0L, 4, 0));
+        assertEquals(0x2362F9DE, Murmur3.hash(0x21436587L << 32, 0L, 4, 0x5082EDEE));
+    }
+
+    @Test
+    public void testSolve() {
+        var random = new Random(11);
+        for (int length = 4; length <= 16; length += 4) {
+            for (int block = 0; block < length / 4; block++) {
+                for (int i = 0; i < 100; i++) {
+                    long msb = random.nextLong();
+                    long lsb = random.nextLong();
+                    int seed = random.nextInt();
+                    int target = random.nextInt();
+                    int solved = Murmur3.solve(msb, lsb, length, seed, block, target);
+                    int shift = (block & 1) == 0 ? 32 : 0;
+                    long mask = 0xFFFFFFFFL << shift;
+                    long value = (solved & 0xFFFFFFFFL) << shift;
+                    if (block < 2) {
+                        msb = (msb & ~mask) | value;
+                    }
+                    else {
+                        lsb = (lsb & ~mask) | value;
+                    }
+                    assertEquals(target, Murmur3.hash(msb, lsb, length, seed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRouters() {
+        HashRouter[] routers = {new ModuloRouter(7), HashRing.random(5, 16, 3)};
+        var random = new Random(5);
+        for (HashRouter router : routers) {
+            long total = 0;
+            for (int p = 0; p < router.partitions(); p++) {
+                total += router.capacity(p);
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals(p, router.route(router.hash(p, random.nextLong())));
+                }
+            }
+            assertEquals(1L << 32, total);
+        }
+    }
+
+    @Test
+    public void testGeneratedIdsRouteToTarget() {
+        HashRouter[] routers = {new ModuloRouter(12), HashRing.random(4, 8, 1)};
+        for (HashRouter router : routers) {
+            var generators = new PartitionedGenerator[] {
+                    PartitionedGenerator.sequence(router, 16, 0),
+                    PartitionedGenerator.sequence(router, 4, 42),
+                    PartitionedGenerator.version7(router, 0, new Version7Generator())
+            };
+            for (var generator : generators) {
+                var seen = new HashSet<UUID>();
+                for (int p = 0; p < router.partitions(); p++) {
+                    for (int i = 0; i < 500; i++) {
+                        var uuid = generator.nextUuid(p);
+                        assertEquals(p, generator.partition(uuid));
+                        assertEquals(generator.getLayout(), Layout.of(uuid.getMostSignificantBits(),
+                                uuid.getLeastSignificantBits()));
+                        assertTrue(seen.add(uuid));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSequenceIdsDisjointFromCounter() {
+        var generator = PartitionedGenerator.sequence(new ModuloRouter(3), 16, 0);
+        for (int i = 0; i < 100; i++) {
+            var uuid = generator.nextUuid(i % 3);
+            var plain = CounterSequenceGenerator.nextUuid();
+            assertEquals('c', new DecomposedUUID(uuid).getVersion());
+            assertEquals('b', new DecomposedUUID(plain).getVersion());
+            assertEquals(DecomposedUUID.processId(plain.getMostSignificantBits(), plain.getLeastSignificantBits()),
+                    DecomposedUUID.processId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            assertEquals(DecomposedUUID.node(plain.getMostSignificantBits(), plain.getLeastSignificantBits()),
+                    DecomposedUUID.node(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            assertEquals(Layout.SEQUENCE, Layout.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            // whatever the solved counter, the low half of the msb never matches a 'b' id
+            assertNotEquals(plain.getMostSignificantBits() & 0xFFFFFFFFL, uuid.getMostSignificantBits() & 0xFFFFFFFFL);
+        }
+    }
+
+    private static int ascii(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII)).getInt();
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.mbari.uuid.pool;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Layout;
+import org.mbari.uuid.UuidFlavor;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidPoolTest {
+
+    @Test
+    public void testRingIsFifoAndBounded() {
+        var ring = new LongPairRing(5);
+        assertEquals(8, ring.capacity());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(ring.offer(i, -i));
+        }
+        assertFalse(ring.offer(99, 99));
+        for (int i = 0; i < 8; i++) {
+            long position = ring.claim();
+            assertEquals(i, ring.msb(position));
+            assertEquals(-i, ring.lsb(position));
+            ring.release(position);
+        }
+        assertEquals(-1, ring.claim());
+    }
+
+    @Test
+    public void testRefillDropsNoCounterValues() throws Exception {
+        try (var pool = new UuidPool(UuidFlavor.COUNTER, 16, 15, 8, Thread::new)) {
+            long previous = 0;
+            for (int round = 0; round < 50; round++) {
+                long deadline = System.currentTimeMillis() + 5000;
+                while (pool.size() < 15 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(1);
+                }
+                assertTrue(pool.size() >= 15);
+                // taken in generation order, so any id the producer threw away leaves a gap
+                for (int i = 0; i < 8; i++) {
+                    long counter = pool.next().getMostSignificantBits() >>> 32;
+                    if (round > 0 || i > 0) {
+                        assertEquals((previous + 1) & 0xFFFFFFFFL, counter);
+                    }
+                    previous = counter;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPoolRefillsAndHandsOutUniqueIds() throws Exception {
+        try (var pool = new UuidPool(UuidFlavor.UUID7, 1024, 512, 128, Thread::new)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.size() < 512 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(pool.size() >= 512);
+
+            Set<UUID> seen = ConcurrentHashMap.newKeySet();
+            var threads = new ArrayList<Thread>();
+            for (int t = 0; t < 4; t++) {
+                var thread = new Thread(() -> {
+                    long[] bits = new long[2];
+                    for (int i = 0; i < 5000; i++) {
+                        UUID uuid;
+                        if ((i & 1) == 0) {
+                            uuid = pool.next();
+                        }
+                        else {
+                            pool.next(bits, 0);
+                            uuid = new UUID(bits[0], bits[1]);
+                        }
+                        assertEquals(Layout.UUID7, Layout.of(uuid.getMostSignificantBits(),
+                                uuid.getLeastSignificantBits()));
+                        assertTrue(seen.add(uuid));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (var thread : threads) {
+                thread.join();
+            }
+            assertEquals(20000, seen.size());
+        }
+    }
+
+    @Test
+    public void testClosedPoolGeneratesInline() {
+        var pool = new UuidPool(UuidFlavor.SEQUENCE, 16, 8, 4, Thread::new);
+        pool.close();
+        for (int i = 0; i < 100; i++) {
+            var uuid = pool.next();
+            assertEquals(Layout.SEQUENCE, Layout.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    public void testFlavors() {
+        for (UuidFlavor flavor : UuidFlavor.values()) {
+            var uuid = flavor.generate();
+            var layout = Layout.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            switch (flavor) {
+                case COUNTER:
+                    assertEquals(Layout.SEQUENCE, layout);
+                    break;
+                case COMB:
+                    // a COMB is a version 4 UUID with the uuid6 version nibble in its lsb
+                    assertEquals(4, Layout.version(uuid.getMostSignificantBits()));
+                    assertEquals(6, (uuid.getLeastSignificantBits() >>> 52) & 0xF);
+                    break;
+                default:
+                    assertEquals(flavor.name(), layout.name());
+            }
+        }
+    }
+
+}
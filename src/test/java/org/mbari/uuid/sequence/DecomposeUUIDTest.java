@@ -1,8 +1,10 @@
 package org.mbari.uuid.sequence;
 
 import java.time.Instant;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Layout;
 import org.mbari.uuid.UUIDs;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,5 +40,36 @@ public class DecomposeUUIDTest {
         assertEquals(Shared.MAC[4], mac[4]);
         assertEquals(Shared.MAC[5], mac[5]);
     }
-    
+
+    @Test
+    public void testStaticDecoders() {
+        long now = System.currentTimeMillis();
+        var uuids = new UUID[] {UUIDs.uuidSequence(), UUIDs.uuidCounter(), UUIDs.uuid1(),
+                UUIDs.uuid6(), UUIDs.uuid7()};
+        var layouts = new Layout[] {Layout.SEQUENCE, Layout.SEQUENCE, Layout.UUID1, Layout.UUID6, Layout.UUID7};
+        for (int i = 0; i < uuids.length; i++) {
+            long msb = uuids[i].getMostSignificantBits();
+            long lsb = uuids[i].getLeastSignificantBits();
+            assertEquals(layouts[i], DecomposedUUID.layout(msb, lsb));
+            assertTrue(Math.abs(DecomposedUUID.epochMillis(msb, lsb) - now) < 5000L, uuids[i].toString());
+        }
+
+        var b = UUIDs.uuidSequence();
+        long msb = b.getMostSignificantBits();
+        long lsb = b.getLeastSignificantBits();
+        assertEquals(Shared.PID, DecomposedUUID.processId(msb, lsb));
+        assertEquals(((Shared.MAC[2] & 0xFL) << 24) | ((Shared.MAC[3] & 0xFFL) << 16)
+                | ((Shared.MAC[4] & 0xFFL) << 8) | (Shared.MAC[5] & 0xFFL), DecomposedUUID.macFragment(msb, lsb));
+
+        var comb = UUIDs.comb();
+        long combMillis = Layout.COMB.epochMillis(comb.getMostSignificantBits(), comb.getLeastSignificantBits());
+        assertTrue(Math.abs(combMillis - now) < 5000L);
+
+        var v4 = UUIDs.uuid4();
+        assertEquals(Layout.UUID4, DecomposedUUID.layout(v4.getMostSignificantBits(), v4.getLeastSignificantBits()));
+        assertEquals(Layout.NO_TIMESTAMP, DecomposedUUID.epochMillis(v4.getMostSignificantBits(), v4.getLeastSignificantBits()));
+        assertEquals(-1, DecomposedUUID.processId(v4.getMostSignificantBits(), v4.getLeastSignificantBits()));
+        assertNull(new DecomposedUUID(v4).getTimestamp());
+    }
+
 }
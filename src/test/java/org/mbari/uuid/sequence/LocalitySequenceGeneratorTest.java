@@ -0,0 +1,108 @@
+package org.mbari.uuid.sequence;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.clock.ManualClock;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalitySequenceGeneratorTest {
+
+    private static int counter(long msb) {
+        return (int) (msb >>> 32);
+    }
+
+    @Test
+    public void testSequentialSharedAcrossInstances() {
+        var clock = new ManualClock(Instant.now());
+        var a = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SEQUENTIAL, clock);
+        var b = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SEQUENTIAL, clock);
+        var seen = new HashSet<UUID>();
+        int previous = counter(a.nextUuid().getMostSignificantBits());
+        for (int i = 0; i < 1000; i++) {
+            var uuid = (i % 2 == 0 ? b : a).nextUuid();
+            assertTrue(seen.add(uuid));
+            int current = counter(uuid.getMostSignificantBits());
+            assertEquals(previous + 1, current);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void testScatteredSharedWithTimeSequence() {
+        var clock = new ManualClock(Instant.now());
+        var a = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SCATTERED, clock);
+        var b = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SCATTERED, clock);
+        int stride = TimeSequenceGenerator.COUNTER.stride();
+        var seen = new HashSet<Integer>();
+        int previous = TimeSequenceGenerator.reverseNibbles(counter(a.nextUuid().getMostSignificantBits()));
+        for (int i = 0; i < 1000; i++) {
+            long msb;
+            switch (i % 3) {
+                case 0:
+                    msb = b.nextUuid().getMostSignificantBits();
+                    break;
+                case 1:
+                    msb = TimeSequenceGenerator.nextUuid().getMostSignificantBits();
+                    break;
+                default:
+                    msb = a.nextUuid().getMostSignificantBits();
+            }
+            int current = TimeSequenceGenerator.reverseNibbles(counter(msb));
+            assertTrue(seen.add(current));
+            assertEquals(previous + stride, current);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void testSequentialStartsFromHourSeed() {
+        var clock = new ManualClock(Instant.parse("2019-06-01T12:34:56Z"));
+        var generator = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SEQUENTIAL,
+                clock, new AtomicLong());
+        int seed = LocalitySequenceGenerator.hourSeed(clock.millis());
+        assertEquals(seed, LocalitySequenceGenerator.hourSeed(clock.millis() - 34 * 60_000));
+
+        assertEquals(seed + 1, counter(generator.nextUuid().getMostSignificantBits()));
+
+        var batch = generator.nextUuids(100);
+        for (int i = 0; i < batch.length; i++) {
+            assertEquals(seed + 2 + i, counter(batch[i].getMostSignificantBits()));
+            assertEquals(clock.millis(), new DecomposedUUID(batch[i]).getTimestamp().toEpochMilli());
+        }
+
+        // a new hour restarts from that hour's seed
+        clock.advance(java.time.Duration.ofHours(1));
+        int next = LocalitySequenceGenerator.hourSeed(clock.millis());
+        assertNotEquals(seed, next);
+        assertEquals(next + 1, counter(generator.nextUuid().getMostSignificantBits()));
+    }
+
+    @Test
+    public void testSwitchModes() {
+        var clock = new ManualClock(Instant.parse("2019-06-01T12:00:00Z"));
+        var generator = new LocalitySequenceGenerator(LocalitySequenceGenerator.Mode.SCATTERED,
+                clock, new AtomicLong());
+        long[] msb = new long[10];
+        long[] lsb = new long[10];
+        generator.fill(msb, lsb);
+        for (int i = 1; i < msb.length; i++) {
+            int previous = TimeSequenceGenerator.reverseNibbles(counter(msb[i - 1]));
+            int current = TimeSequenceGenerator.reverseNibbles(counter(msb[i]));
+            assertEquals(TimeSequenceGenerator.INCREMENT, current - previous);
+        }
+
+        generator.setMode(LocalitySequenceGenerator.Mode.SEQUENTIAL);
+        generator.fill(msb, lsb);
+        for (int i = 0; i < msb.length; i++) {
+            assertEquals(LocalitySequenceGenerator.hourSeed(clock.millis()) + 1 + i, counter(msb[i]));
+            var d = new DecomposedUUID(new java.util.UUID(msb[i], lsb[i]));
+            assertEquals(Shared.VERSION, d.getVersion());
+            assertEquals(Shared.PID, d.getProcessId());
+        }
+    }
+
+}
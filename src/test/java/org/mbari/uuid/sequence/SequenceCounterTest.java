@@ -0,0 +1,103 @@
+package org.mbari.uuid.sequence;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SequenceCounterTest {
+
+    @Test
+    public void testStripedLanesAreDisjoint() throws Exception {
+        var counter = SequenceCounter.striped(12345, 198491317, 3);
+        assertEquals(4, counter.lanes());
+        assertEquals(4 * 198491317, counter.stride());
+
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        int perThread = 10_000;
+        var threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(seen.add(counter.next()));
+                }
+                int last = counter.reserve(100);
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(seen.add(last - i * counter.stride()));
+                }
+            });
+            threads[t].start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * (perThread + 100), seen.size());
+    }
+
+    @Test
+    public void testStripedMatchesSingleSequence() {
+        // one thread walking all lanes of a striped counter visits the same values as a single counter
+        var single = SequenceCounter.single(7, 11);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            expected.add(single.next());
+        }
+        var striped = SequenceCounter.striped(7, 11, 4);
+        Set<Integer> actual = new HashSet<>();
+        int first = striped.next();
+        actual.add(first);
+        for (int i = 1; i < 16; i++) {
+            actual.add(striped.next());
+        }
+        assertTrue(expected.containsAll(actual));
+        assertEquals(0, Math.floorMod(first - 7, 11));
+    }
+
+    @Test
+    public void testPersistentResumesAfterHighWaterMark(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("test.state");
+        int increment = 198491317;
+        Set<Integer> seen = new HashSet<>();
+
+        var state = SequenceState.open(file);
+        assertTrue(state.isFresh());
+        var counter = SequenceCounter.persistent(state, increment, 16);
+        for (int i = 0; i < 40; i++) {
+            assertTrue(seen.add(counter.next()));
+        }
+        int last = counter.reserve(10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(seen.add(last - i * increment));
+        }
+        // 50 values claimed in blocks of 16: the mark is 16 values past the claim that crossed it
+        int mark = state.counter();
+        assertTrue(state.timestamp() > 0);
+        assertThrows(IllegalStateException.class, () -> SequenceState.open(file));
+        state.close();
+        assertEquals(24, Files.size(file));
+
+        // a restart carries on after the mark, however the clock moved
+        state = SequenceState.open(file);
+        assertFalse(state.isFresh());
+        assertEquals(mark, state.counter());
+        counter = SequenceCounter.persistent(state, increment, 16);
+        assertEquals(mark + increment, counter.next());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.add(counter.next()));
+        }
+        state.close();
+    }
+
+    @Test
+    public void testPersistentRejectsForeignFile(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("other.state");
+        Files.write(file, new byte[24]);
+        assertThrows(IllegalStateException.class, () -> SequenceState.open(file));
+    }
+
+}
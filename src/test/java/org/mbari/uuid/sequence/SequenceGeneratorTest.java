@@ -0,0 +1,80 @@
+package org.mbari.uuid.sequence;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SequenceGeneratorTest {
+
+    /**
+     * The original byte-by-byte layout of a 'b' UUID with the counter nibbles reversed. The last
+     * shift is unsigned; the original signed shift smeared the sign bit over the 7th nibble.
+     */
+    private static UUID reference(int count, long time) {
+        byte[] content = new byte[16];
+        content[0] = (byte) (((count & 0xF) << 4) | ((count & 0xF0) >> 4));
+        content[1] = (byte) (((count & 0xF00) >> 4) | ((count & 0xF000) >> 12));
+        content[2] = (byte) (((count & 0xF0000) >> 12) | ((count & 0xF00000) >> 20));
+        content[3] = (byte) (((count & 0xF000000) >> 20) | ((count & 0xF0000000) >>> 28));
+        content[4] = (byte) (Shared.PID >> 8);
+        content[5] = (byte) (Shared.PID);
+        content[6] = (byte) (Shared.VERSION_DEC | (0xF & Shared.MAC[2]));
+        content[7] = Shared.MAC[3];
+        content[8] = Shared.MAC[4];
+        content[9] = Shared.MAC[5];
+        content[10] = (byte) (time >> 40);
+        content[11] = (byte) (time >> 32);
+        content[12] = (byte) (time >> 24);
+        content[13] = (byte) (time >> 16);
+        content[14] = (byte) (time >> 8);
+        content[15] = (byte) (time);
+        return new UUID(Shared.getMostSignificantBits(content), Shared.getLeastSignificantBits(content));
+    }
+
+    @Test
+    public void testBitsMatchByteLayout() {
+        long time = 1350327498450L;
+        int[] counts = {0, 1, -1, 0x12345678, 0xF0E1D2C3, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (int count : counts) {
+            var expected = reference(count, time);
+            assertEquals(expected.getMostSignificantBits(),
+                    Shared.mostSignificantBits(TimeSequenceGenerator.reverseNibbles(count)));
+            assertEquals(expected.getLeastSignificantBits(), Shared.leastSignificantBits(time));
+        }
+    }
+
+    @Test
+    public void testNextUuidIntoArray() {
+        long[] dest = new long[4];
+        TimeSequenceGenerator.nextUuid(dest, 0);
+        CounterSequenceGenerator.nextUuid(dest, 2);
+        for (int i = 0; i < dest.length; i += 2) {
+            var d = new DecomposedUUID(new UUID(dest[i], dest[i + 1]));
+            assertEquals(Shared.VERSION, d.getVersion());
+            assertEquals(Shared.PID, d.getProcessId());
+        }
+    }
+
+    @Test
+    public void testFillClaimsContiguousBlock() {
+        int n = 1000;
+        long[] msb = new long[n];
+        long[] lsb = new long[n];
+        TimeSequenceGenerator.fill(msb, lsb);
+        for (int i = 1; i < n; i++) {
+            int previous = TimeSequenceGenerator.reverseNibbles((int) (msb[i - 1] >>> 32));
+            int current = TimeSequenceGenerator.reverseNibbles((int) (msb[i] >>> 32));
+            assertEquals(198491317, current - previous);
+            assertEquals(lsb[0], lsb[i]);
+        }
+
+        var uuids = CounterSequenceGenerator.nextUuids(n);
+        for (int i = 1; i < n; i++) {
+            long previous = uuids[i - 1].getMostSignificantBits() >>> 32;
+            long current = uuids[i].getMostSignificantBits() >>> 32;
+            assertEquals(1, (int) (current - previous));
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.mbari.uuid.stream;
+
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UuidFlavor;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidStreamsTest {
+
+    @Test
+    public void testParallelStreamsAreDistinct() {
+        int n = 20_000;
+        for (var flavor : UuidFlavor.values()) {
+            var set = UuidStreams.stream(flavor, n)
+                    .parallel()
+                    .collect(Collectors.toCollection(ConcurrentHashMap::newKeySet));
+            assertEquals(n, set.size(), flavor.name());
+            var sample = set.iterator().next();
+            assertEquals(flavor.generate().version(), sample.version(), flavor.name());
+        }
+    }
+
+    @Test
+    public void testForEachVisitsEveryIndexOnce() {
+        int n = 50_000;
+        for (var flavor : UuidFlavor.values()) {
+            long[] msb = new long[n];
+            long[] lsb = new long[n];
+            var counts = new int[n];
+            UuidStreams.forEach(flavor, n, (i, m, l) -> {
+                msb[(int) i] = m;
+                lsb[(int) i] = l;
+                counts[(int) i]++;
+            });
+            var seen = new HashSet<UUID>();
+            for (int i = 0; i < n; i++) {
+                assertEquals(1, counts[i]);
+                assertTrue(seen.add(new UUID(msb[i], lsb[i])), flavor.name());
+            }
+        }
+    }
+
+    @Test
+    public void testSplitIsDisjointAndSized() {
+        var right = new UuidSpliterator(UuidFlavor.SEQUENCE, 0, 10_000, 100);
+        var left = right.trySplit();
+        assertNotNull(left);
+        assertEquals(5_000, left.estimateSize());
+        assertEquals(5_000, right.estimateSize());
+
+        var indexes = new HashSet<Long>();
+        left.forEachRemaining((i, m, l) -> assertTrue(indexes.add(i)));
+        assertTrue(right.tryAdvance((i, m, l) -> assertTrue(indexes.add(i))));
+        // a spliterator that has started generating does not split
+        assertNull(right.trySplit());
+        right.forEachRemaining((i, m, l) -> assertTrue(indexes.add(i)));
+        assertEquals(10_000, indexes.size());
+        assertEquals(0, right.estimateSize());
+        assertFalse(right.tryAdvance((i, m, l) -> fail()));
+
+        assertNull(new UuidSpliterator(UuidFlavor.UUID4, 0, 150, 100).trySplit());
+    }
+}
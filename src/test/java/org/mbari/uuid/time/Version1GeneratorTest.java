@@ -0,0 +1,60 @@
+package org.mbari.uuid.time;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.UUIDs;
+import org.mbari.uuid.clock.ManualClock;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Version1GeneratorTest {
+
+    @Test
+    public void testLayout() {
+        var clock = new ManualClock(1350327498450L);
+        var generator = new Version1Generator(0x0242ac1c0002L, 0x1d6a, clock);
+        var uuid1 = generator.uuid1();
+        assertEquals(1, uuid1.version());
+        assertEquals(2, uuid1.variant());
+        assertEquals(0x0242ac1c0002L, uuid1.node());
+        assertEquals(0x1d6a, uuid1.clockSequence());
+        assertEquals(1350327498450L * 10_000L + 0x01B21DD213814000L, uuid1.timestamp());
+
+        // v6 from the engine matches the bit shuffle of the next v1
+        long[] bits = new long[4];
+        clock.advance(Duration.ofMillis(1));
+        generator.uuid1(bits, 0);
+        var expected = UUIDs.uuid6(new UUID(bits[0], bits[1]));
+        var uuid6 = generator.uuid6();
+        assertEquals(6, uuid6.version());
+        assertEquals(expected.getMostSignificantBits() + 1, uuid6.getMostSignificantBits());
+        assertEquals(expected.getLeastSignificantBits(), uuid6.getLeastSignificantBits());
+    }
+
+    @Test
+    public void testUniqueAcrossThreads() throws Exception {
+        var generator = new Version1Generator(0x0242ac1c0002L, 0, new ManualClock(1350327498450L));
+        int perThread = 20_000;
+        var threads = new Thread[4];
+        var results = new long[threads.length][perThread * 2];
+        for (int t = 0; t < threads.length; t++) {
+            var dest = results[t];
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    generator.uuid6(dest, i * 2);
+                }
+            });
+            threads[t].start();
+        }
+        var seen = new HashSet<Long>();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(seen.add(results[t][i * 2]));
+            }
+        }
+    }
+
+}
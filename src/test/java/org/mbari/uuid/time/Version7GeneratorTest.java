@@ -0,0 +1,54 @@
+package org.mbari.uuid.time;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mbari.uuid.Entropy;
+import org.mbari.uuid.clock.ManualClock;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Version7GeneratorTest {
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @Test
+    public void testLayout() {
+        var clock = new ManualClock(1350327498450L);
+        var generator = new Version7Generator(clock, Entropy.FAST);
+        var uuid = generator.generate();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(1350327498450L, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void testMonotonicWithinMillisecondAndAfterClockRegression() {
+        var clock = new ManualClock(1350327498450L);
+        var generator = new Version7Generator(clock, Entropy.FAST);
+        var previous = generator.generate();
+        for (int i = 0; i < 200_000; i++) {
+            if (i == 100_000) {
+                clock.advance(Duration.ofSeconds(-10));
+            }
+            var next = generator.generate();
+            assertTrue(compareUnsigned(previous, next) < 0, previous + " >= " + next);
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testBatchIsAscending() {
+        var generator = new Version7Generator(new ManualClock(1350327498450L), Entropy.FAST);
+        var uuids = generator.generate(5000);
+        for (int i = 1; i < uuids.length; i++) {
+            assertTrue(compareUnsigned(uuids[i - 1], uuids[i]) < 0);
+        }
+        assertTrue(compareUnsigned(uuids[uuids.length - 1], generator.generate()) < 0);
+    }
+
+}